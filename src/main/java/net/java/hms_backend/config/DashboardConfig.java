@@ -0,0 +1,16 @@
+package net.java.hms_backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class DashboardConfig {
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService dashboardQueryExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
@@ -1,5 +1,6 @@
 package net.java.hms_backend.config;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -39,13 +40,16 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/rooms/**").hasAnyRole("ADMIN","MANAGER","RECEPTIONIST")
                         .requestMatchers("/api/assets/**").hasAnyRole("ADMIN","MANAGER","RECEPTIONIST")
+                        .requestMatchers("/api/bookings/export").hasAnyRole("ADMIN","MANAGER","RECEPTIONIST")
                         .requestMatchers("/api/bookings/**").hasAnyRole("ADMIN","RECEPTIONIST")
                         .requestMatchers("/api/invoices/**").hasAnyRole("ADMIN","ACCOUNTANT","RECEPTIONIST")
                         .requestMatchers("/api/promotions/**").hasAnyRole("ADMIN","MANAGER")
                         .requestMatchers("/api/users/**").hasAnyRole("ADMIN", "MANAGER", "RECEPTIONIST", "ACCOUNTANT")
+                        .requestMatchers("/api/dashboard/events").hasAnyRole("ADMIN","MANAGER", "ACCOUNTANT", "RECEPTIONIST")
                         .requestMatchers("/api/dashboard/**").hasAnyRole("ADMIN","MANAGER", "ACCOUNTANT")
                         .requestMatchers("/api/hotel-info/**").permitAll()
                         .requestMatchers("/api/notifications/**").permitAll()
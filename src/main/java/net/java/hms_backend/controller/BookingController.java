@@ -3,11 +3,20 @@ package net.java.hms_backend.controller;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import net.java.hms_backend.dto.BookingDto;
+import net.java.hms_backend.dto.BookingExportFormat;
 import net.java.hms_backend.dto.BookingFilterRequest;
+import net.java.hms_backend.dto.CursorPage;
 import net.java.hms_backend.service.BookingService;
+import net.java.hms_backend.service.IdempotencyService;
+import net.java.hms_backend.service.OptimisticLockRetry;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 
 @RestController
@@ -16,15 +25,26 @@ import org.springframework.web.bind.annotation.*;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final IdempotencyService idempotencyService;
+    private final OptimisticLockRetry optimisticLockRetry;
 
     @PostMapping
-    public ResponseEntity<BookingDto> createBooking(@Valid @RequestBody BookingDto dto) {
-        return ResponseEntity.ok(bookingService.createBooking(dto));
+    public ResponseEntity<BookingDto> createBooking(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody BookingDto dto) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/bookings", dto, HttpStatus.OK,
+                BookingDto.class, () -> bookingService.createBooking(dto));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<BookingDto>> createGroupBooking(@RequestBody List<BookingDto> dtos) {
+        return ResponseEntity.ok(bookingService.createGroupBooking(dtos));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<BookingDto> getBooking(@PathVariable Long id) {
-        return ResponseEntity.ok(bookingService.getBookingById(id));
+        BookingDto booking = bookingService.getBookingById(id);
+        return ResponseEntity.ok().eTag(ETags.of(booking.getVersion())).body(booking);
     }
 
     @GetMapping
@@ -33,9 +53,29 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.getAllBookings(page, size));
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<List<BookingDto>> searchByGuestName(@RequestParam String name,
+                                                              @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(bookingService.searchByGuestName(name, limit));
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<BookingDto>> scrollBookings(@RequestParam(required = false) Long after,
+                                                                 @RequestParam(defaultValue = "10") int size,
+                                                                 @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(bookingService.scrollBookings(new BookingFilterRequest(), after, size, includeTotal));
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<BookingDto> updateBooking(@PathVariable Long id, @RequestBody BookingDto dto) {
-        return ResponseEntity.ok(bookingService.updateBooking(id, dto));
+    public ResponseEntity<BookingDto> updateBooking(@PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                    @RequestBody BookingDto dto) {
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        if (expectedVersion != null) {
+            dto.setVersion(expectedVersion);
+        }
+        BookingDto updated = optimisticLockRetry.execute(() -> bookingService.updateBooking(id, dto));
+        return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
     }
 
     @DeleteMapping("/{id}")
@@ -52,4 +92,26 @@ public class BookingController {
         Page<BookingDto> bookings = bookingService.filterBookings(request, page, size);
         return ResponseEntity.ok(bookings);
     }
+
+    @PostMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestBody BookingFilterRequest request,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        BookingExportFormat exportFormat = BookingExportFormat.from(format);
+        StreamingResponseBody body = out -> bookingService.exportBookings(request, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"bookings." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    @PostMapping("/filter/scroll")
+    public ResponseEntity<CursorPage<BookingDto>> scrollFilteredBookings(
+            @RequestBody BookingFilterRequest request,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(bookingService.scrollBookings(request, after, size, includeTotal));
+    }
 }
@@ -2,12 +2,25 @@ package net.java.hms_backend.controller;
 
 import lombok.AllArgsConstructor;
 import net.java.hms_backend.dto.DashboardDto;
+import net.java.hms_backend.dto.DashboardQueryTimingDto;
+import net.java.hms_backend.dto.OccupancyAnalyticsDto;
+import net.java.hms_backend.dto.TimeSeriesDto;
+import net.java.hms_backend.service.DashboardEventStream;
 import net.java.hms_backend.service.DashboardService;
+import net.java.hms_backend.service.MetricRollupStore;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/dashboard")
@@ -15,11 +28,39 @@ import org.springframework.web.bind.annotation.RestController;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final DashboardEventStream dashboardEventStream;
 
     @GetMapping("/summary")
-    public ResponseEntity<DashboardDto> getDashboardSummary(@RequestParam(defaultValue = "7d") int days) {
+    public ResponseEntity<DashboardDto> getDashboardSummary(@RequestParam(defaultValue = "7") int days) {
         DashboardDto summary = dashboardService.getDashboardSummary(days);
         return ResponseEntity.ok(summary);
     }
 
+    @GetMapping("/analytics")
+    public ResponseEntity<OccupancyAnalyticsDto> getOccupancyAnalytics(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(dashboardService.getOccupancyAnalytics(from, to));
+    }
+
+    @GetMapping("/timeseries")
+    public ResponseEntity<TimeSeriesDto> getTimeSeries(
+            @RequestParam MetricRollupStore.Metric metric,
+            @RequestParam(defaultValue = "DAY") MetricRollupStore.Granularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(dashboardService.getTimeSeries(metric, granularity, from, to));
+    }
+
+    @GetMapping("/metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<DashboardQueryTimingDto>> getQueryTimings() {
+        return ResponseEntity.ok(dashboardService.getQueryTimings());
+    }
+
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        return dashboardEventStream.subscribe();
+    }
+
 }
\ No newline at end of file
@@ -1,15 +1,23 @@
 package net.java.hms_backend.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
+import net.java.hms_backend.dto.CursorPage;
 import net.java.hms_backend.dto.InvoiceDto;
 import net.java.hms_backend.dto.InvoiceFilterRequest;
+import net.java.hms_backend.service.IdempotencyService;
+import net.java.hms_backend.service.InvoicePdfPipeline;
 import net.java.hms_backend.service.InvoiceService;
+import net.java.hms_backend.service.OptimisticLockRetry;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import java.io.IOException;
+import java.nio.file.NoSuchFileException;
 import org.springframework.http.HttpHeaders;
 
 @AllArgsConstructor
@@ -18,11 +26,15 @@ import org.springframework.http.HttpHeaders;
 public class InvoiceController {
 
     private InvoiceService invoiceService;
+    private IdempotencyService idempotencyService;
+    private OptimisticLockRetry optimisticLockRetry;
 
     @PostMapping
-    public ResponseEntity<InvoiceDto> createInvoice(@RequestBody InvoiceDto invoiceDto) {
-        InvoiceDto savedInvoice = invoiceService.createInvoice(invoiceDto);
-        return new ResponseEntity<>(savedInvoice, HttpStatus.CREATED);
+    public ResponseEntity<InvoiceDto> createInvoice(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody InvoiceDto invoiceDto) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/invoices", invoiceDto, HttpStatus.CREATED,
+                InvoiceDto.class, () -> invoiceService.createInvoice(invoiceDto));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN','ACCOUNTANT')")
@@ -34,12 +46,20 @@ public class InvoiceController {
 
     @GetMapping("/{id}")
     public ResponseEntity<InvoiceDto> getInvoiceById(@PathVariable Long id) {
-        return ResponseEntity.ok(invoiceService.getInvoiceById(id));
+        InvoiceDto invoice = invoiceService.getInvoiceById(id);
+        return ResponseEntity.ok().eTag(ETags.of(invoice.getVersion())).body(invoice);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<InvoiceDto> updateInvoice(@PathVariable Long id, @RequestBody InvoiceDto invoiceDto) {
-        return ResponseEntity.ok(invoiceService.updateInvoice(id, invoiceDto));
+    public ResponseEntity<InvoiceDto> updateInvoice(@PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                    @RequestBody InvoiceDto invoiceDto) {
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        if (expectedVersion != null) {
+            invoiceDto.setVersion(expectedVersion);
+        }
+        InvoiceDto updated = optimisticLockRetry.execute(() -> invoiceService.updateInvoice(id, invoiceDto));
+        return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
     }
 
     @PreAuthorize("hasAnyRole('ADMIN','ACCOUNTANT')")
@@ -59,20 +79,46 @@ public class InvoiceController {
         return ResponseEntity.ok(invoices);
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN','ACCOUNTANT')")
+    @PostMapping("/filter/scroll")
+    public ResponseEntity<CursorPage<InvoiceDto>> scrollInvoices(
+            @RequestBody InvoiceFilterRequest filter,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(invoiceService.scrollInvoices(filter, after, size, includeTotal));
+    }
+
     @GetMapping("{id}/pdf")
-    public ResponseEntity<byte[]> generateInvoicePdf(@PathVariable Long id) throws IOException {
-        InvoiceDto invoiceDto = invoiceService.getInvoiceById(id);
+    public void generateInvoicePdf(@PathVariable Long id, HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
+        InvoicePdfPipeline.RenderedPdf pdf = invoiceService.getInvoicePdf(id);
+        try {
+            sendPdf(request, response, pdf);
+        } catch (NoSuchFileException e) {
+            sendPdf(request, response, invoiceService.refetchInvoicePdf(pdf));
+        }
+    }
 
-        byte[] pdfBytes = invoiceService.generateInvoicePdf(invoiceDto);
+    private static void sendPdf(HttpServletRequest request, HttpServletResponse response,
+                                InvoicePdfPipeline.RenderedPdf pdf) throws IOException {
+        FileDownloads.send(request, response, pdf.file(), "\"" + pdf.fingerprint() + "\"",
+                MediaType.APPLICATION_PDF, "attachment; filename=invoice_" + pdf.content().invoiceId() + ".pdf");
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=invoice_" + id + ".pdf");
-        headers.add(HttpHeaders.CONTENT_TYPE, "application/pdf");
+    @PreAuthorize("hasAnyRole('ADMIN','ACCOUNTANT')")
+    @PostMapping("/export/pdf")
+    public void exportInvoicePdfs(@RequestBody InvoiceFilterRequest filter,
+                                  HttpServletResponse response) throws IOException {
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=invoices.zip");
+        invoiceService.exportInvoicePdfs(filter, response.getOutputStream());
+    }
 
-        return ResponseEntity
-                .ok()
-                .headers(headers)
-                .body(pdfBytes);
+    @PostMapping("{id}/pdf/prerender")
+    public ResponseEntity<Void> prerenderInvoicePdf(@PathVariable Long id) {
+        invoiceService.prerenderInvoicePdf(id);
+        return ResponseEntity.accepted().build();
     }
 
 
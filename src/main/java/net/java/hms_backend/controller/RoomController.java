@@ -2,15 +2,21 @@ package net.java.hms_backend.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import net.java.hms_backend.dto.CursorPage;
+import net.java.hms_backend.dto.RoomAvailabilityGridDto;
 import net.java.hms_backend.dto.RoomDto;
 import net.java.hms_backend.dto.RoomFilterRequest;
+import net.java.hms_backend.service.OptimisticLockRetry;
 import net.java.hms_backend.service.RoomService;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -20,6 +26,7 @@ import java.util.List;
 public class RoomController {
 
     private final RoomService roomService;
+    private final OptimisticLockRetry optimisticLockRetry;
 
     @PostMapping
     public ResponseEntity<RoomDto> createRoom(@Valid @RequestBody RoomDto roomDto) {
@@ -38,14 +45,19 @@ public class RoomController {
     @GetMapping("/{id}")
     public ResponseEntity<RoomDto> getRoomById(@PathVariable("id") Long id) {
         RoomDto room = roomService.getRoomById(id);
-        return ResponseEntity.ok(room);
+        return ResponseEntity.ok().eTag(ETags.of(room.getVersion())).body(room);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<RoomDto> updateRoom(@PathVariable("id") Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                               @Valid @RequestBody RoomDto roomDto) {
-        RoomDto updatedRoom = roomService.updateRoom(id, roomDto);
-        return ResponseEntity.ok(updatedRoom);
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        if (expectedVersion != null) {
+            roomDto.setVersion(expectedVersion);
+        }
+        RoomDto updatedRoom = optimisticLockRetry.execute(() -> roomService.updateRoom(id, roomDto));
+        return ResponseEntity.ok().eTag(ETags.of(updatedRoom.getVersion())).body(updatedRoom);
     }
 
     @DeleteMapping("/{id}")
@@ -63,6 +75,22 @@ public class RoomController {
         return ResponseEntity.ok(rooms);
     }
 
+    @PostMapping("/filter/scroll")
+    public ResponseEntity<CursorPage<RoomDto>> scrollRooms(
+            @RequestBody RoomFilterRequest request,
+            @RequestParam(required = false) Integer after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(roomService.scrollRooms(request, after, size, includeTotal));
+    }
+
+    @GetMapping("/availability-grid")
+    public ResponseEntity<RoomAvailabilityGridDto> getAvailabilityGrid(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(roomService.getAvailabilityGrid(from, to));
+    }
+
 
 
 }
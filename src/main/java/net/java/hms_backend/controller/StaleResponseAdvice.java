@@ -0,0 +1,41 @@
+package net.java.hms_backend.controller;
+
+import net.java.hms_backend.service.DegradationGuard;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Marks responses that {@link DegradationGuard} served from its last good
+ * result with a {@code Warning: 110} header and their {@code Age} in seconds.
+ */
+@ControllerAdvice
+public class StaleResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(DegradationGuard.STALE_AS_OF) instanceof LocalDateTime loadedAt) {
+            long age = Math.max(0, Duration.between(loadedAt, LocalDateTime.now()).toSeconds());
+            response.getHeaders().set("Warning", "110 - \"Response is Stale\"");
+            response.getHeaders().set(HttpHeaders.AGE, String.valueOf(age));
+        }
+        return body;
+    }
+}
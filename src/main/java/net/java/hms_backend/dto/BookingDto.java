@@ -41,6 +41,7 @@ public class BookingDto implements AuditDto {
     private Integer numberOfGuests;
     private String notes;
     private String cancelReason;
+    private Long version;
 
     private String createdBy;
     private String updatedBy;
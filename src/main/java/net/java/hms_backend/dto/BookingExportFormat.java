@@ -0,0 +1,34 @@
+package net.java.hms_backend.dto;
+
+import net.java.hms_backend.exception.BookingException;
+import org.springframework.http.MediaType;
+
+public enum BookingExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    BookingExportFormat(String mediaType, String extension) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static BookingExportFormat from(String value) {
+        for (BookingExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new BookingException.UnsupportedExportFormatException(value);
+    }
+}
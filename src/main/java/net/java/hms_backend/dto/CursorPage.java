@@ -0,0 +1,34 @@
+package net.java.hms_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import net.java.hms_backend.exception.PaginationException;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    public static final int MAX_SIZE = 200;
+
+    private List<T> content;
+    private int size;
+    private Long nextCursor;
+    private Long totalElements;
+
+    /**
+     * The page size to fetch for a requested {@code size}: at least one and
+     * capped at {@link #MAX_SIZE}.
+     */
+    public static int pageSize(int size) {
+        if (size < 1) {
+            throw new PaginationException.InvalidPageSizeException(size);
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+}
@@ -7,6 +7,7 @@ import lombok.Setter;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Getter
@@ -36,4 +37,6 @@ public class DashboardDto {
     private Map<String, Long> invoicesPerStatus;
     private Map<String, BigDecimal> revenuePerPaymentMethod;
     private Map<LocalDate, BigDecimal> dailyRevenueLast7Days;
+
+    private LocalDateTime generatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package net.java.hms_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DashboardEventDto {
+
+    public static final String BOOKING_CREATED = "BOOKING_CREATED";
+    public static final String BOOKING_CANCELLED = "BOOKING_CANCELLED";
+    public static final String CHECKED_IN = "CHECKED_IN";
+    public static final String CHECKED_OUT = "CHECKED_OUT";
+    public static final String INVOICE_PAID = "INVOICE_PAID";
+    public static final String ROOM_STATUS_CHANGED = "ROOM_STATUS_CHANGED";
+
+    private long sequence;
+    private String type;
+    private Long bookingId;
+    private Long invoiceId;
+    private Long roomId;
+    private Integer roomNumber;
+    private String status;
+    private BigDecimal amount;
+    private LocalDateTime occurredAt;
+
+    public static DashboardEventDto of(String type) {
+        DashboardEventDto event = new DashboardEventDto();
+        event.setType(type);
+        event.setOccurredAt(LocalDateTime.now());
+        return event;
+    }
+}
@@ -0,0 +1,20 @@
+package net.java.hms_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardQueryTimingDto {
+
+    private String name;
+    private long calls;
+    private double lastMillis;
+    private double avgMillis;
+    private double maxMillis;
+    private double shareOfSummary;
+}
@@ -20,6 +20,7 @@ public class InvoiceDto implements AuditDto {
     private LocalDateTime dueDate;
     private String paymentMethod;
     private String notes;
+    private Long version;
 
     private String createdBy;
     private String updatedBy;
@@ -0,0 +1,26 @@
+package net.java.hms_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancyAnalyticsDto {
+
+    private LocalDate from;
+    private LocalDate to;
+    private int days;
+    private int rooms;
+    private OccupancyMetricsDto total;
+    private List<OccupancyMetricsDto> daily;
+    private Map<String, OccupancyMetricsDto> byRoomType;
+    private Map<String, OccupancyMetricsDto> byLocation;
+}
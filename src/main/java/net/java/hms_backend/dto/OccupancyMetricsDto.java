@@ -0,0 +1,24 @@
+package net.java.hms_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancyMetricsDto {
+
+    private LocalDate date;
+    private long availableRoomNights;
+    private long soldRoomNights;
+    private BigDecimal revenue;
+    private double occupancyRate;
+    private BigDecimal averageDailyRate;
+    private BigDecimal revPar;
+}
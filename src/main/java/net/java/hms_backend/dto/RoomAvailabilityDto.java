@@ -0,0 +1,22 @@
+package net.java.hms_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomAvailabilityDto {
+
+    private Long roomId;
+    private Integer roomNumber;
+    private String roomType;
+    private String location;
+
+    /** One character per day of the grid window: '1' booked, '0' free. */
+    private String occupancy;
+    private int availableDays;
+}
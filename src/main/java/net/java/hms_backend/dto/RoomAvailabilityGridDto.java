@@ -0,0 +1,21 @@
+package net.java.hms_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomAvailabilityGridDto {
+
+    private LocalDate from;
+    private LocalDate to;
+    private int days;
+    private List<RoomAvailabilityDto> rooms;
+}
@@ -20,6 +20,7 @@ public class RoomDto implements AuditDto {
     private String location;
 
     private List<RoomPriceDto> prices;
+    private Long version;
 
     private String createdBy;
     private String updatedBy;
@@ -0,0 +1,24 @@
+package net.java.hms_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSeriesDto {
+
+    private String metric;
+    private String granularity;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private BigDecimal total;
+    private Map<LocalDateTime, BigDecimal> values;
+}
@@ -5,7 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import net.java.hms_backend.entity.base.Auditable;
+import net.java.hms_backend.entity.base.VersionedAuditable;
+import net.java.hms_backend.entity.listener.BookingIndexListener;
 
 import java.time.LocalDateTime;
 
@@ -14,8 +15,13 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "booking")
-public class Booking extends Auditable {
+@Table(name = "booking", indexes = {
+        @Index(name = "idx_booking_room_check_in", columnList = "room_id, checkInDate"),
+        @Index(name = "idx_booking_check_in_date", columnList = "checkInDate"),
+        @Index(name = "idx_booking_check_out_date", columnList = "checkOutDate")
+})
+@EntityListeners(BookingIndexListener.class)
+public class Booking extends VersionedAuditable {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
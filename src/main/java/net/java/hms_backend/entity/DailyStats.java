@@ -0,0 +1,67 @@
+package net.java.hms_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One row per calendar day of dashboard counters, kept up to date by the booking
+ * and invoice services. Bookings and guests are counted on the check-in day,
+ * check-ins/check-outs on the actual day, invoices and revenue on the issued day,
+ * and in-house bookings on their scheduled check-out day. Bookings without a
+ * check-in date and invoices without an issued date are counted on the
+ * {@link #UNDATED} row, so they are in the all-time totals but in no window.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "daily_stats")
+public class DailyStats {
+
+    public static final LocalDate UNDATED = LocalDate.EPOCH;
+
+    @Id
+    private LocalDate statDate;
+
+    private long bookings;
+    private long guests;
+    private long checkIns;
+    private long checkOuts;
+    private long inHouseCheckOuts;
+    private long invoices;
+
+    @Column(nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private BigDecimal outstanding = BigDecimal.ZERO;
+
+    @ElementCollection
+    @CollectionTable(name = "daily_stats_booking_status", joinColumns = @JoinColumn(name = "stat_date"))
+    @MapKeyColumn(name = "status")
+    @Column(name = "bookings", nullable = false)
+    private Map<String, Long> bookingsByStatus = new HashMap<>();
+
+    @ElementCollection
+    @CollectionTable(name = "daily_stats_invoice_status", joinColumns = @JoinColumn(name = "stat_date"))
+    @MapKeyColumn(name = "status")
+    @Column(name = "invoices", nullable = false)
+    private Map<String, Long> invoicesByStatus = new HashMap<>();
+
+    @ElementCollection
+    @CollectionTable(name = "daily_stats_revenue", joinColumns = @JoinColumn(name = "stat_date"))
+    @MapKeyColumn(name = "payment_method")
+    @Column(name = "revenue", nullable = false)
+    private Map<String, BigDecimal> revenueByPaymentMethod = new HashMap<>();
+
+    public DailyStats(LocalDate statDate) {
+        this.statDate = statDate;
+    }
+}
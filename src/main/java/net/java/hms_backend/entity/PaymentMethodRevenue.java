@@ -0,0 +1,29 @@
+package net.java.hms_backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Running all-time total of paid revenue per payment method, maintained next to
+ * {@link DailyStats} so the dashboard reads one row per method.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "payment_method_revenue")
+public class PaymentMethodRevenue {
+
+    @Id
+    private String paymentMethod;
+
+    @Column(nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+}
@@ -0,0 +1,17 @@
+package net.java.hms_backend.entity.base;
+
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@MappedSuperclass
+public abstract class VersionedAuditable extends Auditable {
+
+    @Version
+    private Long version;
+}
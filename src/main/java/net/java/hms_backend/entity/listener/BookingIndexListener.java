@@ -0,0 +1,42 @@
+package net.java.hms_backend.entity.listener;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import net.java.hms_backend.entity.Booking;
+import net.java.hms_backend.service.BookingIntervalIndex;
+import net.java.hms_backend.service.GuestNameIndex;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BookingIndexListener {
+
+    private final ObjectProvider<BookingIntervalIndex> bookingIntervalIndex;
+
+    private final ObjectProvider<GuestNameIndex> guestNameIndex;
+
+    public BookingIndexListener(ObjectProvider<BookingIntervalIndex> bookingIntervalIndex,
+                                ObjectProvider<GuestNameIndex> guestNameIndex) {
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.guestNameIndex = guestNameIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Booking booking) {
+        BookingIntervalIndex.Interval interval = BookingIntervalIndex.Interval.of(booking);
+        if (interval != null) {
+            bookingIntervalIndex.getObject().putAfterCommit(interval);
+        } else {
+            bookingIntervalIndex.getObject().removeAfterCommit(booking.getId());
+        }
+        guestNameIndex.getObject().putAfterCommit(booking.getId(), booking.getGuestFullName());
+    }
+
+    @PostRemove
+    public void onRemove(Booking booking) {
+        bookingIntervalIndex.getObject().removeAfterCommit(booking.getId());
+        guestNameIndex.getObject().removeAfterCommit(booking.getId());
+    }
+}
@@ -83,4 +83,16 @@ public class BookingException extends RuntimeException {
         }
     }
 
+    public static class InvalidGroupBookingException extends BookingException {
+        public InvalidGroupBookingException(String message) {
+            super(message);
+        }
+    }
+
+    public static class UnsupportedExportFormatException extends BookingException {
+        public UnsupportedExportFormatException(String format) {
+            super("Unsupported export format: " + format);
+        }
+    }
+
 }
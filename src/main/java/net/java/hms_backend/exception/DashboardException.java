@@ -0,0 +1,21 @@
+package net.java.hms_backend.exception;
+
+import java.time.Duration;
+
+public class DashboardException extends RuntimeException {
+    public DashboardException(String message) {
+        super(message);
+    }
+
+    public static class InvalidDateRangeException extends DashboardException {
+        public InvalidDateRangeException(String message) {
+            super(message);
+        }
+    }
+
+    public static class QueryTimeoutException extends DashboardException {
+        public QueryTimeoutException(String query, Duration timeout) {
+            super("Dashboard query '" + query + "' did not finish within " + timeout.toMillis() + " ms.");
+        }
+    }
+}
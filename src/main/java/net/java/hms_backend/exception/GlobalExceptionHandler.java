@@ -1,6 +1,7 @@
 package net.java.hms_backend.exception;
 
 import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -20,8 +21,21 @@ public class GlobalExceptionHandler {
                 .body(Map.of("message", ex.getMessage()));
     }
 
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<Map<String, String>> handleVersionConflict(VersionConflictException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", "The resource was modified concurrently, please reload and try again."));
+    }
+
     @ExceptionHandler({
             InvoiceException.PdfGenerationException.class,
+            InvoiceException.PdfRendererBusyException.class,
             InvoiceException.DuplicateBookingException.class
     })
     public ResponseEntity<Map<String, String>> handleInvoiceExceptions(InvoiceException ex) {
@@ -29,6 +43,8 @@ public class GlobalExceptionHandler {
 
         if (ex instanceof InvoiceException.PdfGenerationException) {
             status = HttpStatus.INTERNAL_SERVER_ERROR;
+        } else if (ex instanceof InvoiceException.PdfRendererBusyException) {
+            status = HttpStatus.SERVICE_UNAVAILABLE;
         } else if (ex instanceof InvoiceException.DuplicateBookingException) {
             status = HttpStatus.CONFLICT;
         } else {
@@ -86,7 +102,9 @@ public class GlobalExceptionHandler {
             BookingException.InvalidDateRangeException.class,
             BookingException.InvalidBookingTypeException.class,
             BookingException.ExceedsRoomCapacityException.class,
-            BookingException.BookingHasInvoiceException.class
+            BookingException.BookingHasInvoiceException.class,
+            BookingException.InvalidGroupBookingException.class,
+            BookingException.UnsupportedExportFormatException.class
     })
     public ResponseEntity<Map<String, String>> handleBookingExceptions(BookingException ex) {
         HttpStatus status = ex instanceof BookingException.BookingConflictException
@@ -100,7 +118,8 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler({
             RoomException.DuplicateRoomException.class,
-            RoomException.NullRoomNumberException.class
+            RoomException.NullRoomNumberException.class,
+            RoomException.InvalidDateRangeException.class
     })
     public ResponseEntity<Map<String, String>>handleRoomExceptions(RoomException ex) {
         HttpStatus status = ex instanceof RoomException.DuplicateRoomException
@@ -119,6 +138,32 @@ public class GlobalExceptionHandler {
                 .body(Map.of("message", ex.getMessage()));
     }
 
+    @ExceptionHandler({
+            IdempotencyException.KeyReusedException.class,
+            IdempotencyException.RequestInProgressException.class
+    })
+    public ResponseEntity<Map<String, String>> handleIdempotencyExceptions(IdempotencyException ex) {
+        HttpStatus status = ex instanceof IdempotencyException.RequestInProgressException
+                ? HttpStatus.CONFLICT
+                : HttpStatus.UNPROCESSABLE_ENTITY;
+
+        return ResponseEntity.status(status)
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler({
+            DashboardException.InvalidDateRangeException.class,
+            DashboardException.QueryTimeoutException.class
+    })
+    public ResponseEntity<Map<String, String>> handleDashboardExceptions(DashboardException ex) {
+        HttpStatus status = ex instanceof DashboardException.QueryTimeoutException
+                ? HttpStatus.SERVICE_UNAVAILABLE
+                : HttpStatus.BAD_REQUEST;
+
+        return ResponseEntity.status(status)
+                .body(Map.of("message", ex.getMessage()));
+    }
+
     @ExceptionHandler({
             PromotionException.MissingNameException.class,
             PromotionException.MissingDiscountPercentException.class,
@@ -132,4 +177,10 @@ public class GlobalExceptionHandler {
                 .body(Map.of("message", ex.getMessage()));
     }
 
+    @ExceptionHandler(PaginationException.InvalidPageSizeException.class)
+    public ResponseEntity<Map<String, String>> handlePaginationExceptions(PaginationException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("message", ex.getMessage()));
+    }
+
 }
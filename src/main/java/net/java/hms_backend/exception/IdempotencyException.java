@@ -0,0 +1,19 @@
+package net.java.hms_backend.exception;
+
+public class IdempotencyException extends RuntimeException {
+    public IdempotencyException(String message) {
+        super(message);
+    }
+
+    public static class KeyReusedException extends IdempotencyException {
+        public KeyReusedException(String key) {
+            super("Idempotency-Key " + key + " was already used with a different request body.");
+        }
+    }
+
+    public static class RequestInProgressException extends IdempotencyException {
+        public RequestInProgressException(String key) {
+            super("A request with Idempotency-Key " + key + " is still being processed.");
+        }
+    }
+}
@@ -11,6 +11,12 @@ public class InvoiceException extends RuntimeException {
         }
     }
 
+    public static class PdfRendererBusyException extends InvoiceException {
+        public PdfRendererBusyException() {
+            super("PDF renderer is busy, please retry shortly", null);
+        }
+    }
+
     public static class DuplicateBookingException extends InvoiceException {
         public DuplicateBookingException(String message, Throwable cause) {
             super(message, cause);
@@ -0,0 +1,13 @@
+package net.java.hms_backend.exception;
+
+public class PaginationException extends RuntimeException {
+    public PaginationException(String message) {
+        super(message);
+    }
+
+    public static class InvalidPageSizeException extends PaginationException {
+        public InvalidPageSizeException(int size) {
+            super("Page size must be at least 1, got " + size + ".");
+        }
+    }
+}
@@ -14,4 +14,8 @@ public class RoomException extends RuntimeException {
   public static class NullRoomNumberException extends RoomException {
         public NullRoomNumberException(String message) { super(message);}
   }
+
+  public static class InvalidDateRangeException extends RoomException {
+        public InvalidDateRangeException(String message) { super(message);}
+  }
 }
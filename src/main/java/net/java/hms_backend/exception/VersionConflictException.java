@@ -0,0 +1,13 @@
+package net.java.hms_backend.exception;
+
+public class VersionConflictException extends RuntimeException {
+
+    public VersionConflictException(String resourceName, Long id, Long expectedVersion, Long currentVersion) {
+        super(String.format("%s %s has been modified: expected version %s but current version is %s",
+                resourceName, id, expectedVersion, currentVersion));
+    }
+
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
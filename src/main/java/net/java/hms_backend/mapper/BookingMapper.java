@@ -23,6 +23,7 @@ public class BookingMapper {
         dto.setNumberOfGuests(booking.getNumberOfGuests());
         dto.setNotes(booking.getNotes());
         dto.setCancelReason(booking.getCancelReason());
+        dto.setVersion(booking.getVersion());
 
         BaseMapper.mapAuditFields(booking, dto);
 
@@ -17,6 +17,7 @@ public class InvoiceMapper {
         dto.setDueDate(invoice.getDueDate());
         dto.setPaymentMethod(invoice.getPaymentMethod());
         dto.setNotes(invoice.getNotes());
+        dto.setVersion(invoice.getVersion());
         BaseMapper.mapAuditFields(invoice, dto);
 
         return dto;
@@ -2,13 +2,12 @@ package net.java.hms_backend.mapper;
 
 import net.java.hms_backend.dto.RoomDto;
 import net.java.hms_backend.dto.RoomPriceDto;
-import net.java.hms_backend.entity.Promotion;
 import net.java.hms_backend.entity.Room;
 import net.java.hms_backend.entity.RoomPrice;
+import net.java.hms_backend.service.PricingEngine;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 public class RoomMapper {
 
@@ -20,6 +19,7 @@ public class RoomMapper {
         dto.setRoomType(room.getRoomType());
         dto.setStatus(room.getStatus());
         dto.setLocation(room.getLocation());
+        dto.setVersion(room.getVersion());
 
         List<RoomPriceDto> priceDtos = new ArrayList<>();
         if (room.getPrices() != null) {
@@ -35,7 +35,7 @@ public class RoomMapper {
         return dto;
     }
 
-    public static RoomDto mapToRoomDto(Room room, Optional<Promotion> promotionOpt) {
+    public static RoomDto mapToRoomDto(Room room, List<PricingEngine.Rate> rates) {
         RoomDto dto = new RoomDto();
         dto.setId(room.getId());
         dto.setRoomNumber(room.getRoomNumber());
@@ -43,21 +43,13 @@ public class RoomMapper {
         dto.setRoomType(room.getRoomType());
         dto.setStatus(room.getStatus());
         dto.setLocation(room.getLocation());
+        dto.setVersion(room.getVersion());
 
         List<RoomPriceDto> priceDtos = new ArrayList<>();
-        for (RoomPrice price : room.getPrices()) {
-            double finalPrice = price.getBasePrice();
-
-            if (promotionOpt.isPresent()) {
-                double discount = promotionOpt.get().getDiscountPercent() / 100.0;
-                finalPrice *= (1 - discount);
-            }
-
-            long roundedPrice = Math.round(finalPrice);
-
+        for (PricingEngine.Rate rate : rates) {
             RoomPriceDto priceDto = new RoomPriceDto();
-            priceDto.setPriceType(price.getPriceType());
-            priceDto.setBasePrice((double)roundedPrice);
+            priceDto.setPriceType(rate.priceType());
+            priceDto.setBasePrice(PricingEngine.toAmount(rate.unitPrice()).doubleValue());
             priceDtos.add(priceDto);
         }
 
@@ -0,0 +1,10 @@
+package net.java.hms_backend.repository;
+
+import net.java.hms_backend.entity.Booking;
+
+import java.util.List;
+
+public interface BookingBatchRepository {
+
+    void insertAllInBatch(List<Booking> bookings);
+}
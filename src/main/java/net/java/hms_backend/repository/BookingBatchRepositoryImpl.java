@@ -0,0 +1,87 @@
+package net.java.hms_backend.repository;
+
+import net.java.hms_backend.entity.Booking;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public class BookingBatchRepositoryImpl implements BookingBatchRepository {
+
+    private static final String INSERT_BOOKING = "INSERT INTO booking (" +
+            "guest_full_name, guest_id_number, guest_nationality, room_id, " +
+            "check_in_date, check_out_date, actual_check_in_time, actual_check_out_time, " +
+            "booking_type, status, number_of_guests, notes, cancel_reason, " +
+            "created_by, updated_by, created_at, updated_at, version" +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookingBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAllInBatch(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_BOOKING, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Booking booking = bookings.get(i);
+                        ps.setString(1, booking.getGuestFullName());
+                        ps.setString(2, booking.getGuestIdNumber());
+                        ps.setString(3, booking.getGuestNationality());
+                        ps.setLong(4, booking.getRoom().getId());
+                        setTimestamp(ps, 5, booking.getCheckInDate());
+                        setTimestamp(ps, 6, booking.getCheckOutDate());
+                        setTimestamp(ps, 7, booking.getActualCheckInTime());
+                        setTimestamp(ps, 8, booking.getActualCheckOutTime());
+                        ps.setString(9, booking.getBookingType());
+                        ps.setString(10, booking.getStatus());
+                        ps.setInt(11, booking.getNumberOfGuests());
+                        ps.setString(12, booking.getNotes());
+                        ps.setString(13, booking.getCancelReason());
+                        ps.setString(14, booking.getCreatedBy());
+                        ps.setString(15, booking.getUpdatedBy());
+                        setTimestamp(ps, 16, booking.getCreatedAt());
+                        setTimestamp(ps, 17, booking.getUpdatedAt());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return bookings.size();
+                    }
+                },
+                keyHolder
+        );
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < bookings.size(); i++) {
+            Number id = (Number) keys.get(i).values().iterator().next();
+            bookings.get(i).setId(id.longValue());
+            bookings.get(i).setVersion(0L);
+        }
+    }
+
+    private static void setTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.TIMESTAMP);
+        } else {
+            ps.setTimestamp(index, Timestamp.valueOf(value));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package net.java.hms_backend.repository;
+
+import net.java.hms_backend.dto.BookingDto;
+import net.java.hms_backend.dto.BookingFilterRequest;
+
+import java.util.function.Consumer;
+
+public interface BookingExportRepository {
+
+    long streamFiltered(BookingFilterRequest filter, Consumer<BookingDto> consumer);
+}
@@ -0,0 +1,96 @@
+package net.java.hms_backend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import net.java.hms_backend.dto.BookingDto;
+import net.java.hms_backend.dto.BookingFilterRequest;
+import net.java.hms_backend.entity.Booking;
+import net.java.hms_backend.entity.Room;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Streams the bookings selected by {@link BookingFilterPredicates} as plain
+ * column tuples, so no entities are loaded into the persistence context and
+ * rows are fetched from the cursor in batches as they are written out.
+ */
+public class BookingExportRepositoryImpl implements BookingExportRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String[] BOOKING_COLUMNS = {
+            "id", "guestFullName", "guestIdNumber", "guestNationality",
+            "checkInDate", "checkOutDate", "actualCheckInTime", "actualCheckOutTime",
+            "bookingType", "status", "numberOfGuests", "notes", "cancelReason",
+            "createdBy", "updatedBy", "createdAt", "updatedAt"
+    };
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public long streamFiltered(BookingFilterRequest filter, Consumer<BookingDto> consumer) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Room> room = booking.join("room", JoinType.LEFT);
+
+        Selection<?>[] selections = new Selection<?>[BOOKING_COLUMNS.length + 2];
+        for (int i = 0; i < BOOKING_COLUMNS.length; i++) {
+            selections[i] = booking.get(BOOKING_COLUMNS[i]).alias(BOOKING_COLUMNS[i]);
+        }
+        selections[BOOKING_COLUMNS.length] = room.get("id").alias("roomId");
+        selections[BOOKING_COLUMNS.length + 1] = room.get("roomNumber").alias("roomNumber");
+        query.multiselect(selections);
+        query.where(cb.and(BookingFilterPredicates.of(cb, booking, filter).toArray(new Predicate[0])));
+        query.orderBy(cb.asc(booking.get("id")));
+
+        long count = 0;
+        try (Stream<Tuple> rows = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            for (Tuple row : (Iterable<Tuple>) rows::iterator) {
+                consumer.accept(toDto(row));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static BookingDto toDto(Tuple row) {
+        BookingDto dto = new BookingDto();
+        dto.setId(row.get("id", Long.class));
+        dto.setGuestFullName(row.get("guestFullName", String.class));
+        dto.setGuestIdNumber(row.get("guestIdNumber", String.class));
+        dto.setGuestNationality(row.get("guestNationality", String.class));
+        dto.setRoomId(row.get("roomId", Long.class));
+        dto.setRoomNumber(row.get("roomNumber", Integer.class));
+        dto.setCheckInDate(row.get("checkInDate", LocalDateTime.class));
+        dto.setCheckOutDate(row.get("checkOutDate", LocalDateTime.class));
+        dto.setActualCheckInTime(row.get("actualCheckInTime", LocalDateTime.class));
+        dto.setActualCheckOutTime(row.get("actualCheckOutTime", LocalDateTime.class));
+        dto.setBookingType(row.get("bookingType", String.class));
+        dto.setStatus(row.get("status", String.class));
+        dto.setNumberOfGuests(row.get("numberOfGuests", Integer.class));
+        dto.setNotes(row.get("notes", String.class));
+        dto.setCancelReason(row.get("cancelReason", String.class));
+        dto.setCreatedBy(row.get("createdBy", String.class));
+        dto.setUpdatedBy(row.get("updatedBy", String.class));
+        dto.setCreatedAt(row.get("createdAt", LocalDateTime.class));
+        dto.setUpdatedAt(row.get("updatedAt", LocalDateTime.class));
+        return dto;
+    }
+}
@@ -0,0 +1,70 @@
+package net.java.hms_backend.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import net.java.hms_backend.dto.BookingFilterRequest;
+import net.java.hms_backend.entity.Booking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The one definition of how a {@link BookingFilterRequest} selects bookings,
+ * shared by the paged filter, the keyset scroll and the export so they always
+ * return the same rows for the same request.
+ */
+public final class BookingFilterPredicates {
+
+    private BookingFilterPredicates() {
+    }
+
+    public static List<Predicate> of(CriteriaBuilder cb, Root<Booking> root, BookingFilterRequest filter) {
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (filter.getGuestFullName() != null && !filter.getGuestFullName().isBlank()) {
+            predicates.add(cb.like(
+                    cb.lower(root.get("guestFullName")),
+                    "%" + filter.getGuestFullName().toLowerCase() + "%"
+            ));
+        }
+
+        if (filter.getGuestIdNumber() != null && !filter.getGuestIdNumber().isBlank()) {
+            predicates.add(cb.equal(root.get("guestIdNumber"), filter.getGuestIdNumber()));
+        }
+
+        if (filter.getGuestNationality() != null && !filter.getGuestNationality().isBlank()) {
+            predicates.add(cb.equal(root.get("guestNationality"), filter.getGuestNationality()));
+        }
+
+        if (filter.getStatus() != null && !filter.getStatus().isBlank()) {
+            predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+        }
+
+        if (filter.getBookingType() != null && !filter.getBookingType().isBlank()) {
+            predicates.add(cb.equal(root.get("bookingType"), filter.getBookingType()));
+        }
+
+        if (filter.getCheckInDateFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("checkInDate"), filter.getCheckInDateFrom()));
+        }
+
+        if (filter.getCheckInDateTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("checkInDate"), filter.getCheckInDateTo()));
+        }
+
+        if (filter.getCheckOutDateFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("checkOutDate"), filter.getCheckOutDateFrom()));
+        }
+
+        if (filter.getCheckOutDateTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("checkOutDate"), filter.getCheckOutDateTo()));
+        }
+
+        if (filter.getRoomId() != null) {
+            predicates.add(cb.equal(root.get("room").get("roomNumber"), filter.getRoomId()));
+        }
+
+        return predicates;
+    }
+}
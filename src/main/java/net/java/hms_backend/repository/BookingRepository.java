@@ -5,10 +5,12 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingBatchRepository, BookingExportRepository {
 
     @Query("SELECT b FROM Booking b " +
             "WHERE b.room.id = :roomId " +
@@ -24,6 +26,98 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("newCheckOut") LocalDateTime newCheckOut
     );
 
+    @Query("SELECT COUNT(b) > 0 FROM Booking b " +
+            "WHERE b.room.id = :roomId " +
+            "AND b.id <> :excludeId " +
+            "AND b.checkInDate <= :newCheckOut " +
+            "AND (" +
+            "     (b.actualCheckOutTime IS NULL AND b.checkOutDate >= :newCheckIn) " +
+            "     OR " +
+            "     (b.actualCheckOutTime IS NOT NULL AND b.actualCheckOutTime >= :newCheckIn)" +
+            ")")
+    boolean existsOverlappingBooking(
+            @Param("roomId") Long roomId,
+            @Param("newCheckIn") LocalDateTime newCheckIn,
+            @Param("newCheckOut") LocalDateTime newCheckOut,
+            @Param("excludeId") Long excludeId
+    );
+
+    @Query("SELECT b.id AS id, b.room.id AS roomId, b.checkInDate AS checkInDate, " +
+            "b.checkOutDate AS checkOutDate, b.actualCheckOutTime AS actualCheckOutTime " +
+            "FROM Booking b " +
+            "WHERE b.room IS NOT NULL " +
+            "AND (" +
+            "     (b.actualCheckOutTime IS NULL AND b.checkOutDate >= :from) " +
+            "     OR " +
+            "     (b.actualCheckOutTime IS NOT NULL AND b.actualCheckOutTime >= :from)" +
+            ")")
+    List<BookingIntervalView> findIntervalsEndingAfter(@Param("from") LocalDateTime from);
+
+    @Query("SELECT b.id AS id, b.room.id AS roomId, b.checkInDate AS checkInDate, " +
+            "b.checkOutDate AS checkOutDate, b.actualCheckOutTime AS actualCheckOutTime " +
+            "FROM Booking b " +
+            "WHERE b.room IS NOT NULL " +
+            "AND b.status <> 'CANCELLED' " +
+            "AND b.checkInDate <= :to " +
+            "AND COALESCE(b.actualCheckOutTime, b.checkOutDate) >= :from")
+    List<BookingIntervalView> findActiveIntervalsOverlapping(@Param("from") LocalDateTime from,
+                                                             @Param("to") LocalDateTime to);
+
+    interface BookingIntervalView {
+        Long getId();
+        Long getRoomId();
+        LocalDateTime getCheckInDate();
+        LocalDateTime getCheckOutDate();
+        LocalDateTime getActualCheckOutTime();
+    }
+
+    @Query("SELECT b.id AS id, b.guestFullName AS guestFullName FROM Booking b")
+    List<GuestNameView> findAllGuestNames();
+
+    @Query(value = "SELECT b.id FROM booking b " +
+            "WHERE f_unaccent(lower(b.guest_full_name)) % f_unaccent(:query) " +
+            "OR f_unaccent(lower(b.guest_full_name)) LIKE '%' || f_unaccent(:query) || '%' " +
+            "ORDER BY similarity(f_unaccent(lower(b.guest_full_name)), f_unaccent(:query)) DESC, b.id DESC " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Long> searchIdsByGuestNameSimilarity(@Param("query") String query, @Param("limit") int limit);
+
+    interface GuestNameView {
+        Long getId();
+        String getGuestFullName();
+    }
+
+    @Query("SELECT b.status AS status, b.checkInDate AS checkInDate, b.checkOutDate AS checkOutDate, " +
+            "b.actualCheckInTime AS actualCheckInTime, b.actualCheckOutTime AS actualCheckOutTime, " +
+            "b.numberOfGuests AS numberOfGuests FROM Booking b")
+    Stream<BookingStatsView> streamStatsViews();
+
+    interface BookingStatsView {
+        String getStatus();
+        LocalDateTime getCheckInDate();
+        LocalDateTime getCheckOutDate();
+        LocalDateTime getActualCheckInTime();
+        LocalDateTime getActualCheckOutTime();
+        int getNumberOfGuests();
+    }
+
+    @Query("SELECT b.room.id AS roomId, COALESCE(b.actualCheckInTime, b.checkInDate) AS startTime, " +
+            "COALESCE(b.actualCheckOutTime, b.checkOutDate) AS endTime, i.amount AS amount " +
+            "FROM Booking b LEFT JOIN Invoice i ON i.booking = b " +
+            "WHERE (b.status IS NULL OR b.status <> 'CANCELLED') " +
+            "AND COALESCE(b.actualCheckInTime, b.checkInDate) < :to " +
+            "AND COALESCE(b.actualCheckOutTime, b.checkOutDate) >= :from")
+    List<StayRevenueView> findStaysOverlapping(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    interface StayRevenueView {
+        Long getRoomId();
+        LocalDateTime getStartTime();
+        LocalDateTime getEndTime();
+        BigDecimal getAmount();
+    }
+
+    long countByCheckInDateBetween(LocalDateTime from, LocalDateTime to);
+
+    long countByCheckOutDateBetween(LocalDateTime from, LocalDateTime to);
 
     Long countByStatus(String status);
 
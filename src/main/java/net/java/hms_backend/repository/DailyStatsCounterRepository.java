@@ -0,0 +1,18 @@
+package net.java.hms_backend.repository;
+
+import net.java.hms_backend.entity.DailyStats;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface DailyStatsCounterRepository {
+
+    void incrementAll(Collection<DailyStats> deltas);
+
+    void replaceAll(Collection<DailyStats> stats);
+
+    List<DailyStats> findBetween(LocalDate from, LocalDate to);
+
+    DailyStats sumAll();
+}
@@ -0,0 +1,240 @@
+package net.java.hms_backend.repository;
+
+import net.java.hms_backend.entity.DailyStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+public class DailyStatsCounterRepositoryImpl implements DailyStatsCounterRepository {
+
+    private static final String POSTGRESQL = "postgresql";
+
+    private static final String[] COUNTERS = {
+            "bookings", "guests", "check_ins", "check_outs", "in_house_check_outs", "invoices", "revenue", "outstanding"
+    };
+    private static final String[] COUNTER_TYPES = {
+            "BIGINT", "BIGINT", "BIGINT", "BIGINT", "BIGINT", "BIGINT", "NUMERIC(38,2)", "NUMERIC(38,2)"
+    };
+
+    private static final String BOOKING_STATUS = "daily_stats_booking_status";
+    private static final String INVOICE_STATUS = "daily_stats_invoice_status";
+    private static final String REVENUE = "daily_stats_revenue";
+    private static final String REVENUE_TOTALS = "payment_method_revenue";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String upsertDay;
+    private final String upsertBookingStatus;
+    private final String upsertInvoiceStatus;
+    private final String upsertRevenue;
+    private final String upsertRevenueTotal;
+
+    public DailyStatsCounterRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                           @Value("${spring.sql.init.platform:}") String platform) {
+        this.jdbcTemplate = jdbcTemplate;
+        boolean postgres = POSTGRESQL.equalsIgnoreCase(platform);
+        this.upsertDay = upsert(postgres, "daily_stats", new String[]{"stat_date"}, new String[]{"DATE"},
+                COUNTERS, COUNTER_TYPES);
+        this.upsertBookingStatus = upsert(postgres, BOOKING_STATUS, new String[]{"stat_date", "status"},
+                new String[]{"DATE", "VARCHAR(255)"}, new String[]{"bookings"}, new String[]{"BIGINT"});
+        this.upsertInvoiceStatus = upsert(postgres, INVOICE_STATUS, new String[]{"stat_date", "status"},
+                new String[]{"DATE", "VARCHAR(255)"}, new String[]{"invoices"}, new String[]{"BIGINT"});
+        this.upsertRevenue = upsert(postgres, REVENUE, new String[]{"stat_date", "payment_method"},
+                new String[]{"DATE", "VARCHAR(255)"}, new String[]{"revenue"}, new String[]{"NUMERIC(38,2)"});
+        this.upsertRevenueTotal = upsert(postgres, REVENUE_TOTALS, new String[]{"payment_method"},
+                new String[]{"VARCHAR(255)"}, new String[]{"revenue"}, new String[]{"NUMERIC(38,2)"});
+    }
+
+    @Override
+    public void incrementAll(Collection<DailyStats> deltas) {
+        // Always touch days in the same order so concurrent writers cannot deadlock.
+        List<DailyStats> ordered = deltas.stream()
+                .sorted(Comparator.comparing(DailyStats::getStatDate))
+                .toList();
+        write(ordered, upsertDay, upsertBookingStatus, upsertInvoiceStatus, upsertRevenue);
+        batch(upsertRevenueTotal, revenueTotalRows(ordered));
+    }
+
+    @Override
+    public void replaceAll(Collection<DailyStats> stats) {
+        jdbcTemplate.update("DELETE FROM " + BOOKING_STATUS);
+        jdbcTemplate.update("DELETE FROM " + INVOICE_STATUS);
+        jdbcTemplate.update("DELETE FROM " + REVENUE);
+        jdbcTemplate.update("DELETE FROM daily_stats");
+        jdbcTemplate.update("DELETE FROM " + REVENUE_TOTALS);
+        write(new ArrayList<>(stats),
+                insert("daily_stats", "stat_date", COUNTERS),
+                insert(BOOKING_STATUS, "stat_date", "status", "bookings"),
+                insert(INVOICE_STATUS, "stat_date", "status", "invoices"),
+                insert(REVENUE, "stat_date", "payment_method", "revenue"));
+        batch(insert(REVENUE_TOTALS, "payment_method", "revenue"), revenueTotalRows(stats));
+    }
+
+    @Override
+    public List<DailyStats> findBetween(LocalDate from, LocalDate to) {
+        Map<LocalDate, DailyStats> days = new LinkedHashMap<>();
+        String range = " WHERE stat_date BETWEEN ? AND ? ORDER BY stat_date";
+        jdbcTemplate.query("SELECT * FROM daily_stats" + range, rs -> {
+            DailyStats day = new DailyStats(rs.getDate("stat_date").toLocalDate());
+            day.setBookings(rs.getLong("bookings"));
+            day.setGuests(rs.getLong("guests"));
+            day.setCheckIns(rs.getLong("check_ins"));
+            day.setCheckOuts(rs.getLong("check_outs"));
+            day.setInHouseCheckOuts(rs.getLong("in_house_check_outs"));
+            day.setInvoices(rs.getLong("invoices"));
+            day.setRevenue(rs.getBigDecimal("revenue"));
+            day.setOutstanding(rs.getBigDecimal("outstanding"));
+            days.put(day.getStatDate(), day);
+        }, Date.valueOf(from), Date.valueOf(to));
+
+        Object[] params = {Date.valueOf(from), Date.valueOf(to)};
+        jdbcTemplate.query("SELECT stat_date, status, bookings FROM " + BOOKING_STATUS + range, rs -> {
+            breakdown(days, rs.getDate("stat_date"), DailyStats::getBookingsByStatus)
+                    .put(rs.getString("status"), rs.getLong("bookings"));
+        }, params);
+        jdbcTemplate.query("SELECT stat_date, status, invoices FROM " + INVOICE_STATUS + range, rs -> {
+            breakdown(days, rs.getDate("stat_date"), DailyStats::getInvoicesByStatus)
+                    .put(rs.getString("status"), rs.getLong("invoices"));
+        }, params);
+        jdbcTemplate.query("SELECT stat_date, payment_method, revenue FROM " + REVENUE + range, rs -> {
+            breakdown(days, rs.getDate("stat_date"), DailyStats::getRevenueByPaymentMethod)
+                    .put(rs.getString("payment_method"), rs.getBigDecimal("revenue"));
+        }, params);
+
+        return new ArrayList<>(days.values());
+    }
+
+    @Override
+    public DailyStats sumAll() {
+        DailyStats totals = new DailyStats();
+        jdbcTemplate.query("SELECT COALESCE(SUM(bookings), 0) AS bookings, COALESCE(SUM(guests), 0) AS guests, " +
+                "COALESCE(SUM(check_ins), 0) AS check_ins, COALESCE(SUM(check_outs), 0) AS check_outs, " +
+                "COALESCE(SUM(in_house_check_outs), 0) AS in_house_check_outs, " +
+                "COALESCE(SUM(invoices), 0) AS invoices, COALESCE(SUM(revenue), 0) AS revenue, " +
+                "COALESCE(SUM(outstanding), 0) AS outstanding FROM daily_stats", rs -> {
+            totals.setBookings(rs.getLong("bookings"));
+            totals.setGuests(rs.getLong("guests"));
+            totals.setCheckIns(rs.getLong("check_ins"));
+            totals.setCheckOuts(rs.getLong("check_outs"));
+            totals.setInHouseCheckOuts(rs.getLong("in_house_check_outs"));
+            totals.setInvoices(rs.getLong("invoices"));
+            totals.setRevenue(rs.getBigDecimal("revenue"));
+            totals.setOutstanding(rs.getBigDecimal("outstanding"));
+        });
+
+        jdbcTemplate.query("SELECT status, SUM(bookings) AS total FROM " + BOOKING_STATUS +
+                        " GROUP BY status HAVING SUM(bookings) <> 0",
+                rs -> { totals.getBookingsByStatus().put(rs.getString("status"), rs.getLong("total")); });
+        jdbcTemplate.query("SELECT status, SUM(invoices) AS total FROM " + INVOICE_STATUS +
+                        " GROUP BY status HAVING SUM(invoices) <> 0",
+                rs -> { totals.getInvoicesByStatus().put(rs.getString("status"), rs.getLong("total")); });
+        jdbcTemplate.query("SELECT payment_method, revenue FROM " + REVENUE_TOTALS + " WHERE revenue <> 0",
+                rs -> { totals.getRevenueByPaymentMethod().put(rs.getString("payment_method"), rs.getBigDecimal("revenue")); });
+        return totals;
+    }
+
+    /**
+     * Per-method sums over all given days, in method order so concurrent
+     * writers lock the total rows in the same order.
+     */
+    private static List<Object[]> revenueTotalRows(Collection<DailyStats> days) {
+        Map<String, BigDecimal> totals = new TreeMap<>();
+        days.forEach(day -> day.getRevenueByPaymentMethod().forEach((method, amount) -> totals.merge(method, amount, BigDecimal::add)));
+        totals.values().removeIf(amount -> amount.signum() == 0);
+        List<Object[]> rows = new ArrayList<>();
+        totals.forEach((method, amount) -> rows.add(new Object[]{method, amount}));
+        return rows;
+    }
+
+    private void write(List<DailyStats> days, String daySql, String bookingStatusSql,
+                       String invoiceStatusSql, String revenueSql) {
+        List<Object[]> dayRows = new ArrayList<>();
+        List<Object[]> bookingStatusRows = new ArrayList<>();
+        List<Object[]> invoiceStatusRows = new ArrayList<>();
+        List<Object[]> revenueRows = new ArrayList<>();
+
+        for (DailyStats day : days) {
+            Date date = Date.valueOf(day.getStatDate());
+            dayRows.add(new Object[]{date, day.getBookings(), day.getGuests(), day.getCheckIns(), day.getCheckOuts(),
+                    day.getInHouseCheckOuts(), day.getInvoices(), day.getRevenue(), day.getOutstanding()});
+            day.getBookingsByStatus().forEach((status, count) -> bookingStatusRows.add(new Object[]{date, status, count}));
+            day.getInvoicesByStatus().forEach((status, count) -> invoiceStatusRows.add(new Object[]{date, status, count}));
+            day.getRevenueByPaymentMethod().forEach((method, amount) -> revenueRows.add(new Object[]{date, method, amount}));
+        }
+
+        batch(daySql, dayRows);
+        batch(bookingStatusSql, bookingStatusRows);
+        batch(invoiceStatusSql, invoiceStatusRows);
+        batch(revenueSql, revenueRows);
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    private static <V> Map<String, V> breakdown(Map<LocalDate, DailyStats> days, Date date,
+                                                Function<DailyStats, Map<String, V>> target) {
+        return target.apply(days.computeIfAbsent(date.toLocalDate(), DailyStats::new));
+    }
+
+    private static String insert(String table, String... columns) {
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" +
+                String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+    }
+
+    private static String insert(String table, String key, String[] counters) {
+        String[] columns = new String[counters.length + 1];
+        columns[0] = key;
+        System.arraycopy(counters, 0, columns, 1, counters.length);
+        return insert(table, columns);
+    }
+
+    /**
+     * Adds the given counters to an existing row or inserts it. PostgreSQL gets
+     * INSERT ... ON CONFLICT, which is safe against concurrent first inserts;
+     * other databases get a standard MERGE.
+     */
+    private static String upsert(boolean postgres, String table, String[] keys, String[] keyTypes,
+                                 String[] counters, String[] counterTypes) {
+        List<String> columns = new ArrayList<>(List.of(keys));
+        columns.addAll(List.of(counters));
+        List<String> assignments = new ArrayList<>();
+
+        if (postgres) {
+            for (String counter : counters) {
+                assignments.add(counter + " = " + table + "." + counter + " + EXCLUDED." + counter);
+            }
+            return insert(table, columns.toArray(String[]::new)) +
+                    " ON CONFLICT (" + String.join(", ", keys) + ") DO UPDATE SET " + String.join(", ", assignments);
+        }
+
+        List<String> values = new ArrayList<>();
+        List<String> matches = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            values.add("CAST(? AS " + keyTypes[i] + ")");
+            matches.add("t." + keys[i] + " = s." + keys[i]);
+        }
+        for (int i = 0; i < counters.length; i++) {
+            values.add("CAST(? AS " + counterTypes[i] + ")");
+            assignments.add(counters[i] + " = t." + counters[i] + " + s." + counters[i]);
+        }
+        return "MERGE INTO " + table + " t USING (VALUES (" + String.join(", ", values) + ")) s (" +
+                String.join(", ", columns) + ") ON " + String.join(" AND ", matches) +
+                " WHEN MATCHED THEN UPDATE SET " + String.join(", ", assignments) +
+                " WHEN NOT MATCHED THEN INSERT (" + String.join(", ", columns) + ") VALUES (" +
+                String.join(", ", columns.stream().map(c -> "s." + c).toList()) + ")";
+    }
+}
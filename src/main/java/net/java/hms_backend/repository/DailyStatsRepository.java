@@ -0,0 +1,14 @@
+package net.java.hms_backend.repository;
+
+import net.java.hms_backend.entity.DailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+
+public interface DailyStatsRepository extends JpaRepository<DailyStats, LocalDate>, DailyStatsCounterRepository {
+
+    @Query("SELECT COALESCE(SUM(d.inHouseCheckOuts), 0) FROM DailyStats d WHERE d.statDate > :day")
+    long sumInHouseCheckOutsAfter(@Param("day") LocalDate day);
+}
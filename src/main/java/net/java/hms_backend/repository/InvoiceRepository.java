@@ -7,7 +7,10 @@ import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     Long countByStatus(String status);
@@ -23,4 +26,48 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     boolean existsByBookingId(Long bookingId);
 
     List<Invoice> findByIssuedDateBetween(LocalDateTime startDateTime, LocalDateTime endDateTime);
+
+    @Query("SELECT i.status AS status, i.paymentMethod AS paymentMethod, i.issuedDate AS issuedDate, " +
+            "i.amount AS amount, i.paidAmount AS paidAmount FROM Invoice i")
+    Stream<InvoiceStatsView> streamStatsViews();
+
+    String PDF_VIEW_QUERY = "SELECT i.id AS id, i.version AS version, i.amount AS amount, i.paidAmount AS paidAmount, " +
+            "i.status AS status, i.issuedDate AS issuedDate, i.dueDate AS dueDate, " +
+            "i.paymentMethod AS paymentMethod, i.notes AS notes, b.id AS bookingId, " +
+            "b.guestFullName AS guestFullName, b.bookingType AS bookingType, b.checkInDate AS checkInDate, " +
+            "b.checkOutDate AS checkOutDate, r.id AS roomId, r.roomNumber AS roomNumber " +
+            "FROM Invoice i JOIN i.booking b JOIN b.room r ";
+
+    @Query(PDF_VIEW_QUERY + "WHERE i.id = :id")
+    Optional<InvoicePdfView> findPdfViewById(@Param("id") Long id);
+
+    @Query(PDF_VIEW_QUERY + "WHERE i.id IN :ids ORDER BY i.id")
+    List<InvoicePdfView> findPdfViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface InvoiceStatsView {
+        String getStatus();
+        String getPaymentMethod();
+        LocalDateTime getIssuedDate();
+        BigDecimal getAmount();
+        BigDecimal getPaidAmount();
+    }
+
+    interface InvoicePdfView {
+        Long getId();
+        Long getVersion();
+        BigDecimal getAmount();
+        BigDecimal getPaidAmount();
+        String getStatus();
+        LocalDateTime getIssuedDate();
+        LocalDateTime getDueDate();
+        String getPaymentMethod();
+        String getNotes();
+        Long getBookingId();
+        String getGuestFullName();
+        String getBookingType();
+        LocalDateTime getCheckInDate();
+        LocalDateTime getCheckOutDate();
+        Long getRoomId();
+        Integer getRoomNumber();
+    }
 }
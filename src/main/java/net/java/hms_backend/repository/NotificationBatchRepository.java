@@ -0,0 +1,10 @@
+package net.java.hms_backend.repository;
+
+import net.java.hms_backend.entity.Notification;
+
+import java.util.List;
+
+public interface NotificationBatchRepository {
+
+    void insertAllInBatch(List<Notification> notifications);
+}
@@ -0,0 +1,44 @@
+package net.java.hms_backend.repository;
+
+import net.java.hms_backend.entity.Notification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class NotificationBatchRepositoryImpl implements NotificationBatchRepository {
+
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String INSERT_NOTIFICATIONS =
+            "INSERT INTO notification (type, title, message, read, created_at, recipient_id) VALUES ";
+
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NotificationBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAllInBatch(List<Notification> notifications) {
+        for (int from = 0; from < notifications.size(); from += ROWS_PER_STATEMENT) {
+            List<Notification> chunk = notifications.subList(from, Math.min(from + ROWS_PER_STATEMENT, notifications.size()));
+
+            String sql = INSERT_NOTIFICATIONS + String.join(", ", Collections.nCopies(chunk.size(), ROW_PLACEHOLDERS));
+            List<Object> params = new ArrayList<>(chunk.size() * 6);
+            for (Notification notification : chunk) {
+                params.add(notification.getType());
+                params.add(notification.getTitle());
+                params.add(notification.getMessage());
+                params.add(notification.isRead());
+                params.add(Timestamp.valueOf(notification.getCreatedAt()));
+                params.add(notification.getRecipient().getId());
+            }
+            jdbcTemplate.update(sql, params.toArray());
+        }
+    }
+}
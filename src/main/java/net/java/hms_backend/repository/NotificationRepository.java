@@ -5,7 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
 
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
+public interface NotificationRepository extends JpaRepository<Notification, Long>, NotificationBatchRepository {
     List<Notification> findByRecipientEmailOrderByCreatedAtDesc(String email);
     long countByRecipientEmailAndReadFalse(String email);
 }
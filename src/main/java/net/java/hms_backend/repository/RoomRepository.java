@@ -1,9 +1,14 @@
 package net.java.hms_backend.repository;
 
+import net.java.hms_backend.entity.PriceType;
 import net.java.hms_backend.entity.Room;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +16,25 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
     Optional<Room> findByRoomNumber(Integer roomNumber);
 
     boolean existsByRoomNumber(Integer roomNumber);
+
+    List<Room> findByRoomNumberIn(Collection<Integer> roomNumbers);
+
+    @Query("SELECT r.id AS id, r.roomType AS roomType, r.location AS location FROM Room r ORDER BY r.id")
+    List<RoomDimensionView> findAllDimensions();
+
+    @Query("SELECT p.room.id AS roomId, p.priceType AS priceType, p.basePrice AS basePrice " +
+            "FROM RoomPrice p WHERE p.room.id IN :roomIds ORDER BY p.id")
+    List<RoomRateView> findRatesByRoomIdIn(@Param("roomIds") Collection<Long> roomIds);
+
+    interface RoomDimensionView {
+        Long getId();
+        String getRoomType();
+        String getLocation();
+    }
+
+    interface RoomRateView {
+        Long getRoomId();
+        PriceType getPriceType();
+        Double getBasePrice();
+    }
 }
@@ -0,0 +1,144 @@
+package net.java.hms_backend.service;
+
+import jakarta.annotation.PostConstruct;
+import net.java.hms_backend.entity.Booking;
+import net.java.hms_backend.repository.BookingRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory per-room timeline of booking intervals used for conflict checks.
+ * Bookings ending before {@link #horizon} are not loaded, so lookups starting
+ * before it fall back to the database.
+ */
+@Service
+public class BookingIntervalIndex {
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, RoomTimeline> timelines = new ConcurrentHashMap<>();
+    private final Map<Long, Interval> intervalsByBooking = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime horizon;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        LocalDateTime loadedFrom = LocalDateTime.now();
+        for (BookingRepository.BookingIntervalView view : bookingRepository.findIntervalsEndingAfter(loadedFrom)) {
+            LocalDateTime end = view.getActualCheckOutTime() != null
+                    ? view.getActualCheckOutTime()
+                    : view.getCheckOutDate();
+            put(new Interval(view.getId(), view.getRoomId(), view.getCheckInDate(), end));
+        }
+        horizon = loadedFrom;
+    }
+
+    public boolean hasOverlap(Long roomId, LocalDateTime checkIn, LocalDateTime checkOut, Long excludeBookingId) {
+        LocalDateTime loadedFrom = horizon;
+        if (loadedFrom == null || checkIn.isBefore(loadedFrom)) {
+            return bookingRepository.existsOverlappingBooking(
+                    roomId, checkIn, checkOut, excludeBookingId != null ? excludeBookingId : -1L);
+        }
+
+        RoomTimeline timeline = timelines.get(roomId);
+        return timeline != null && timeline.overlaps(checkIn, checkOut, excludeBookingId);
+    }
+
+    public void put(Interval interval) {
+        if (interval == null) {
+            return;
+        }
+        Interval previous = intervalsByBooking.put(interval.bookingId(), interval);
+        if (previous != null) {
+            removeFromTimeline(previous);
+        }
+        timelines.computeIfAbsent(interval.roomId(), id -> new RoomTimeline()).add(interval);
+    }
+
+    public void remove(Long bookingId) {
+        if (bookingId == null) {
+            return;
+        }
+        Interval previous = intervalsByBooking.remove(bookingId);
+        if (previous != null) {
+            removeFromTimeline(previous);
+        }
+    }
+
+    public void putAfterCommit(Interval interval) {
+        AfterCommit.run(() -> put(interval));
+    }
+
+    public void removeAfterCommit(Long bookingId) {
+        AfterCommit.run(() -> remove(bookingId));
+    }
+
+    private void removeFromTimeline(Interval interval) {
+        RoomTimeline timeline = timelines.get(interval.roomId());
+        if (timeline != null) {
+            timeline.remove(interval);
+        }
+    }
+
+    public record Interval(Long bookingId, Long roomId, LocalDateTime start, LocalDateTime end) {
+
+        public static Interval of(Booking booking) {
+            if (booking.getId() == null || booking.getRoom() == null || booking.getRoom().getId() == null
+                    || booking.getCheckInDate() == null || booking.getCheckOutDate() == null) {
+                return null;
+            }
+            LocalDateTime end = booking.getActualCheckOutTime() != null
+                    ? booking.getActualCheckOutTime()
+                    : booking.getCheckOutDate();
+            return new Interval(booking.getId(), booking.getRoom().getId(), booking.getCheckInDate(), end);
+        }
+    }
+
+    private static final class RoomTimeline {
+
+        private static final Comparator<Interval> BY_START = Comparator
+                .comparing(Interval::start)
+                .thenComparing(Interval::bookingId);
+
+        private final NavigableSet<Interval> intervals = new TreeSet<>(BY_START);
+        private Duration longestStay = Duration.ZERO;
+
+        synchronized void add(Interval interval) {
+            intervals.add(interval);
+            Duration length = Duration.between(interval.start(), interval.end());
+            if (length.compareTo(longestStay) > 0) {
+                longestStay = length;
+            }
+        }
+
+        synchronized void remove(Interval interval) {
+            intervals.remove(interval);
+        }
+
+        synchronized boolean overlaps(LocalDateTime checkIn, LocalDateTime checkOut, Long excludeBookingId) {
+            LocalDateTime earliestStart = checkIn.minus(longestStay);
+            if (checkOut.isBefore(earliestStart)) {
+                return false;
+            }
+            Interval from = new Interval(Long.MIN_VALUE, null, earliestStart, null);
+            Interval to = new Interval(Long.MAX_VALUE, null, checkOut, null);
+            for (Interval candidate : intervals.subSet(from, true, to, true)) {
+                if (!candidate.end().isBefore(checkIn) && !candidate.bookingId().equals(excludeBookingId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
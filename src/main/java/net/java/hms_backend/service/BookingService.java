@@ -1,17 +1,25 @@
 package net.java.hms_backend.service;
 
 import net.java.hms_backend.dto.BookingDto;
+import net.java.hms_backend.dto.BookingExportFormat;
 import net.java.hms_backend.dto.BookingFilterRequest;
+import net.java.hms_backend.dto.CursorPage;
 import org.springframework.data.domain.Page;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface BookingService {
     BookingDto createBooking(BookingDto bookingDto);
+    List<BookingDto> createGroupBooking(List<BookingDto> bookingDtos);
     BookingDto getBookingById(Long id);
     Page<BookingDto> getAllBookings(int page, int size);
+    List<BookingDto> searchByGuestName(String name, int limit);
     BookingDto updateBooking(Long id, BookingDto bookingDto);
     void deleteBooking(Long id);
     Page<BookingDto> filterBookings(BookingFilterRequest request, int page, int size);
+    long exportBookings(BookingFilterRequest request, BookingExportFormat format, OutputStream out) throws IOException;
+    CursorPage<BookingDto> scrollBookings(BookingFilterRequest request, Long after, int size, boolean includeTotal);
     void notifyRoomsAboutUpcomingCheckout();
 }
@@ -0,0 +1,8 @@
+package net.java.hms_backend.service;
+
+/**
+ * Published by {@link DailyStatsService} whenever the daily_stats read model
+ * changes, so derived views such as the cached dashboard can be dropped.
+ */
+public record DailyStatsChangedEvent() {
+}
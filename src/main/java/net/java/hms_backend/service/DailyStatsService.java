@@ -0,0 +1,262 @@
+package net.java.hms_backend.service;
+
+import net.java.hms_backend.entity.Booking;
+import net.java.hms_backend.entity.DailyStats;
+import net.java.hms_backend.entity.Invoice;
+import net.java.hms_backend.repository.BookingRepository;
+import net.java.hms_backend.repository.DailyStatsRepository;
+import net.java.hms_backend.repository.InvoiceRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the {@code daily_stats} read model. Writers pass the state of a row
+ * before and after their change; its old contribution is subtracted and the new
+ * one added in the caller's transaction. {@link #rebuild()} recomputes every day
+ * from the source tables to backfill and to repair drift from writes that
+ * bypass the services. The same changes feed the in-memory
+ * {@link MetricRollupStore}; a rebuild reads one repeatable-read snapshot so
+ * the store can replay exactly the changes committed after it.
+ */
+@Service
+public class DailyStatsService {
+
+    private final DailyStatsRepository dailyStatsRepository;
+    private final BookingRepository bookingRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MetricRollupStore metricRollupStore;
+    private final TransactionTemplate rebuildTransaction;
+
+    public DailyStatsService(DailyStatsRepository dailyStatsRepository,
+                             BookingRepository bookingRepository,
+                             InvoiceRepository invoiceRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             MetricRollupStore metricRollupStore,
+                             PlatformTransactionManager transactionManager) {
+        this.dailyStatsRepository = dailyStatsRepository;
+        this.bookingRepository = bookingRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.eventPublisher = eventPublisher;
+        this.metricRollupStore = metricRollupStore;
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        this.rebuildTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBookingChange(BookingFacts before, BookingFacts after) {
+        Map<LocalDate, DailyStats> deltas = new HashMap<>();
+        MetricRollupStore.Batch samples = metricRollupStore.batch();
+        addBooking(deltas, samples, before, -1);
+        addBooking(deltas, samples, after, 1);
+        metricRollupStore.applyAfterCommit(samples);
+        increment(deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBookingsCreated(Collection<Booking> bookings) {
+        Map<LocalDate, DailyStats> deltas = new HashMap<>();
+        MetricRollupStore.Batch samples = metricRollupStore.batch();
+        bookings.forEach(booking -> addBooking(deltas, samples, BookingFacts.of(booking), 1));
+        metricRollupStore.applyAfterCommit(samples);
+        increment(deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordInvoiceChange(InvoiceFacts before, InvoiceFacts after) {
+        Map<LocalDate, DailyStats> deltas = new HashMap<>();
+        MetricRollupStore.Batch samples = metricRollupStore.batch();
+        addInvoice(deltas, samples, before, -1);
+        addInvoice(deltas, samples, after, 1);
+        metricRollupStore.applyAfterCommit(samples);
+        increment(deltas);
+    }
+
+    @Scheduled(cron = "${hms.daily-stats.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        rebuildTransaction.executeWithoutResult(status -> rebuildFromSources());
+    }
+
+    /**
+     * Restores the rollup snapshot and rebuilds when there is none, when
+     * {@code daily_stats} is empty, or when the restored daily series disagree
+     * with {@code daily_stats}, e.g. because changes committed after the last
+     * snapshot were lost in a crash.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        boolean restored = metricRollupStore.restoreSnapshot();
+        boolean missing = dailyStatsRepository.count() == 0
+                && (bookingRepository.count() > 0 || invoiceRepository.count() > 0);
+        if (!restored || missing || !metricRollupStore.matchesDaily(dailyTotals())) {
+            rebuild();
+        }
+    }
+
+    private void rebuildFromSources() {
+        Map<LocalDate, DailyStats> days = new HashMap<>();
+        MetricRollupStore.Rebuild rebuild = metricRollupStore.beginRebuild(dailyStatsRepository::count);
+        MetricRollupStore.Rollups rollups = rebuild.rollups();
+        try (Stream<BookingRepository.BookingStatsView> bookings = bookingRepository.streamStatsViews()) {
+            bookings.forEach(view -> addBooking(days, rollups, BookingFacts.of(view), 1));
+        }
+        try (Stream<InvoiceRepository.InvoiceStatsView> invoices = invoiceRepository.streamStatsViews()) {
+            invoices.forEach(view -> addInvoice(days, rollups, InvoiceFacts.of(view), 1));
+        }
+        dailyStatsRepository.replaceAll(days.values());
+        metricRollupStore.replaceAfterCommit(rebuild);
+        eventPublisher.publishEvent(new DailyStatsChangedEvent());
+    }
+
+    private MetricRollupStore.Rollups dailyTotals() {
+        MetricRollupStore.Rollups totals = metricRollupStore.newRollups();
+        for (DailyStats day : dailyStatsRepository.findAll()) {
+            if (DailyStats.UNDATED.equals(day.getStatDate())) {
+                continue;
+            }
+            LocalDateTime at = day.getStatDate().atStartOfDay();
+            totals.add(MetricRollupStore.Metric.BOOKINGS, at, day.getBookings());
+            totals.add(MetricRollupStore.Metric.GUESTS, at, day.getGuests());
+            totals.add(MetricRollupStore.Metric.CHECK_INS, at, day.getCheckIns());
+            totals.add(MetricRollupStore.Metric.CHECK_OUTS, at, day.getCheckOuts());
+            totals.add(MetricRollupStore.Metric.INVOICES, at, day.getInvoices());
+            totals.add(MetricRollupStore.Metric.REVENUE, at, cents(day.getRevenue()));
+        }
+        return totals;
+    }
+
+    private void increment(Map<LocalDate, DailyStats> deltas) {
+        deltas.values().removeIf(DailyStatsService::isZero);
+        if (!deltas.isEmpty()) {
+            dailyStatsRepository.incrementAll(deltas.values());
+            eventPublisher.publishEvent(new DailyStatsChangedEvent());
+        }
+    }
+
+    private static void addBooking(Map<LocalDate, DailyStats> days, MetricRollupStore.Sink samples,
+                                   BookingFacts facts, int sign) {
+        if (facts == null) {
+            return;
+        }
+        samples.add(MetricRollupStore.Metric.BOOKINGS, facts.checkInDate(), sign);
+        samples.add(MetricRollupStore.Metric.GUESTS, facts.checkInDate(), (long) sign * facts.numberOfGuests());
+        samples.add(MetricRollupStore.Metric.CHECK_INS, facts.actualCheckInTime(), sign);
+        samples.add(MetricRollupStore.Metric.CHECK_OUTS, facts.actualCheckOutTime(), sign);
+        DailyStats booked = day(days, facts.checkInDate());
+        booked.setBookings(booked.getBookings() + sign);
+        booked.setGuests(booked.getGuests() + (long) sign * facts.numberOfGuests());
+        if (facts.status() != null) {
+            booked.getBookingsByStatus().merge(facts.status(), (long) sign, Long::sum);
+        }
+        if (facts.actualCheckInTime() != null) {
+            DailyStats day = day(days, facts.actualCheckInTime());
+            day.setCheckIns(day.getCheckIns() + sign);
+        }
+        if (facts.actualCheckOutTime() != null) {
+            DailyStats day = day(days, facts.actualCheckOutTime());
+            day.setCheckOuts(day.getCheckOuts() + sign);
+        }
+        if ("CHECKED IN".equals(facts.status()) && facts.checkOutDate() != null) {
+            DailyStats day = day(days, facts.checkOutDate());
+            day.setInHouseCheckOuts(day.getInHouseCheckOuts() + sign);
+        }
+    }
+
+    private static void addInvoice(Map<LocalDate, DailyStats> days, MetricRollupStore.Sink samples,
+                                   InvoiceFacts facts, int sign) {
+        if (facts == null) {
+            return;
+        }
+        samples.add(MetricRollupStore.Metric.INVOICES, facts.issuedDate(), sign);
+        DailyStats day = day(days, facts.issuedDate());
+        BigDecimal signum = BigDecimal.valueOf(sign);
+        day.setInvoices(day.getInvoices() + sign);
+        if (facts.status() == null) {
+            return;
+        }
+        day.getInvoicesByStatus().merge(facts.status(), (long) sign, Long::sum);
+
+        if ("PENDING".equals(facts.status()) && facts.amount() != null && facts.paidAmount() != null
+                && facts.amount().compareTo(facts.paidAmount()) > 0) {
+            day.setOutstanding(day.getOutstanding().add(facts.amount().subtract(facts.paidAmount()).multiply(signum)));
+        }
+        if ("PAID".equals(facts.status()) && facts.paidAmount() != null) {
+            BigDecimal paid = facts.paidAmount().multiply(signum);
+            samples.add(MetricRollupStore.Metric.REVENUE, facts.issuedDate(), cents(paid));
+            day.setRevenue(day.getRevenue().add(paid));
+            if (facts.paymentMethod() != null) {
+                day.getRevenueByPaymentMethod().merge(facts.paymentMethod(), paid, BigDecimal::add);
+            }
+        }
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * The row for the day of {@code timestamp}, or the undated row when there
+     * is none.
+     */
+    private static DailyStats day(Map<LocalDate, DailyStats> days, LocalDateTime timestamp) {
+        return days.computeIfAbsent(timestamp != null ? timestamp.toLocalDate() : DailyStats.UNDATED, DailyStats::new);
+    }
+
+    private static boolean isZero(DailyStats day) {
+        day.getBookingsByStatus().values().removeIf(count -> count == 0);
+        day.getInvoicesByStatus().values().removeIf(count -> count == 0);
+        day.getRevenueByPaymentMethod().values().removeIf(amount -> amount.signum() == 0);
+        return day.getBookings() == 0 && day.getGuests() == 0 && day.getCheckIns() == 0
+                && day.getCheckOuts() == 0 && day.getInHouseCheckOuts() == 0 && day.getInvoices() == 0
+                && day.getRevenue().signum() == 0 && day.getOutstanding().signum() == 0
+                && day.getBookingsByStatus().isEmpty() && day.getInvoicesByStatus().isEmpty()
+                && day.getRevenueByPaymentMethod().isEmpty();
+    }
+
+    public record BookingFacts(String status, LocalDateTime checkInDate, LocalDateTime checkOutDate,
+                               LocalDateTime actualCheckInTime, LocalDateTime actualCheckOutTime,
+                               int numberOfGuests) {
+
+        public static BookingFacts of(Booking booking) {
+            return new BookingFacts(booking.getStatus(), booking.getCheckInDate(), booking.getCheckOutDate(),
+                    booking.getActualCheckInTime(), booking.getActualCheckOutTime(), booking.getNumberOfGuests());
+        }
+
+        static BookingFacts of(BookingRepository.BookingStatsView view) {
+            return new BookingFacts(view.getStatus(), view.getCheckInDate(), view.getCheckOutDate(),
+                    view.getActualCheckInTime(), view.getActualCheckOutTime(), view.getNumberOfGuests());
+        }
+    }
+
+    public record InvoiceFacts(String status, String paymentMethod, LocalDateTime issuedDate,
+                               BigDecimal amount, BigDecimal paidAmount) {
+
+        public static InvoiceFacts of(Invoice invoice) {
+            return new InvoiceFacts(invoice.getStatus(), invoice.getPaymentMethod(), invoice.getIssuedDate(),
+                    invoice.getAmount(), invoice.getPaidAmount());
+        }
+
+        static InvoiceFacts of(InvoiceRepository.InvoiceStatsView view) {
+            return new InvoiceFacts(view.getStatus(), view.getPaymentMethod(), view.getIssuedDate(),
+                    view.getAmount(), view.getPaidAmount());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package net.java.hms_backend.service;
+
+import net.java.hms_backend.dto.DashboardEventDto;
+import net.java.hms_backend.entity.Booking;
+import net.java.hms_backend.entity.Invoice;
+import net.java.hms_backend.entity.Room;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes small booking, invoice and room deltas to dashboard clients over SSE.
+ * Events are broadcast only after the writing transaction commits. Every client
+ * has a bounded buffer drained by its own virtual thread; a client whose buffer
+ * is full is disconnected and is expected to reload its snapshot on reconnect.
+ */
+@Service
+public class DashboardEventStream {
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public DashboardEventStream(@Value("${hms.dashboard.sse.timeout:30m}") Duration timeout,
+                                @Value("${hms.dashboard.sse.buffer-size:256}") int bufferSize) {
+        this.timeoutMillis = timeout.toMillis();
+        this.bufferSize = bufferSize;
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> disconnect(subscriber));
+        emitter.onTimeout(() -> disconnect(subscriber));
+        emitter.onError(e -> disconnect(subscriber));
+        subscribers.add(subscriber);
+        subscriber.sender = Thread.ofVirtual().name("dashboard-sse").start(subscriber::drain);
+        return emitter;
+    }
+
+    public void bookingCreated(Booking booking) {
+        publishAfterCommit(bookingEvent(DashboardEventDto.BOOKING_CREATED, booking));
+    }
+
+    public void bookingUpdated(DailyStatsService.BookingFacts before, Booking booking) {
+        if ("CANCELLED".equals(booking.getStatus()) && !"CANCELLED".equals(before.status())) {
+            publishAfterCommit(bookingEvent(DashboardEventDto.BOOKING_CANCELLED, booking));
+        }
+        if (booking.getActualCheckInTime() != null && before.actualCheckInTime() == null) {
+            publishAfterCommit(bookingEvent(DashboardEventDto.CHECKED_IN, booking));
+        }
+        if (booking.getActualCheckOutTime() != null && before.actualCheckOutTime() == null) {
+            publishAfterCommit(bookingEvent(DashboardEventDto.CHECKED_OUT, booking));
+        }
+    }
+
+    public void invoiceUpdated(String previousStatus, Invoice invoice) {
+        if (!"PAID".equals(invoice.getStatus()) || "PAID".equals(previousStatus)) {
+            return;
+        }
+        DashboardEventDto event = DashboardEventDto.of(DashboardEventDto.INVOICE_PAID);
+        event.setInvoiceId(invoice.getId());
+        event.setBookingId(invoice.getBooking() != null ? invoice.getBooking().getId() : null);
+        event.setStatus(invoice.getStatus());
+        event.setAmount(invoice.getPaidAmount());
+        publishAfterCommit(event);
+    }
+
+    public void roomStatusChanged(String previousStatus, Room room) {
+        if (Objects.equals(previousStatus, room.getStatus())) {
+            return;
+        }
+        DashboardEventDto event = DashboardEventDto.of(DashboardEventDto.ROOM_STATUS_CHANGED);
+        event.setRoomId(room.getId());
+        event.setRoomNumber(room.getRoomNumber());
+        event.setStatus(room.getStatus());
+        publishAfterCommit(event);
+    }
+
+    @Scheduled(fixedRateString = "${hms.dashboard.sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> offer(subscriber, HEARTBEAT));
+    }
+
+    private void publishAfterCommit(DashboardEventDto event) {
+        AfterCommit.run(() -> broadcast(event));
+    }
+
+    private void broadcast(DashboardEventDto event) {
+        event.setSequence(sequence.incrementAndGet());
+        subscribers.forEach(subscriber -> offer(subscriber, event));
+    }
+
+    private void offer(Subscriber subscriber, Object item) {
+        if (!subscriber.queue.offer(item)) {
+            disconnect(subscriber);
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (subscribers.remove(subscriber) && subscriber.sender != null) {
+            subscriber.sender.interrupt();
+        }
+    }
+
+    private static DashboardEventDto bookingEvent(String type, Booking booking) {
+        DashboardEventDto event = DashboardEventDto.of(type);
+        event.setBookingId(booking.getId());
+        if (booking.getRoom() != null) {
+            event.setRoomId(booking.getRoom().getId());
+            event.setRoomNumber(booking.getRoom().getRoomNumber());
+        }
+        event.setStatus(booking.getStatus());
+        return event;
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue;
+        private volatile Thread sender;
+
+        Subscriber(SseEmitter emitter, BlockingQueue<Object> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        void drain() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    Object item = queue.take();
+                    if (item == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        DashboardEventDto event = (DashboardEventDto) item;
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.getSequence()))
+                                .name(event.getType())
+                                .data(event, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
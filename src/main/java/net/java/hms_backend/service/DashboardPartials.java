@@ -0,0 +1,28 @@
+package net.java.hms_backend.service;
+
+import net.java.hms_backend.entity.DailyStats;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Everything a dashboard summary is built from. The per-day arrays end at
+ * {@code today}, so any window up to {@link #days()} long is a suffix of them.
+ *
+ * @param revenuePerDay paid revenue per day, in cents
+ */
+public record DashboardPartials(LocalDate today,
+                                LocalDateTime generatedAt,
+                                DailyStats totals,
+                                long activeBookings,
+                                long upcomingCheckIns,
+                                long upcomingCheckOuts,
+                                long guestsCurrentMonth,
+                                long checkedOutToday,
+                                long[] bookingsPerDay,
+                                long[] revenuePerDay) {
+
+    public int days() {
+        return bookingsPerDay.length;
+    }
+}
@@ -0,0 +1,137 @@
+package net.java.hms_backend.service;
+
+import net.java.hms_backend.dto.DashboardQueryTimingDto;
+import net.java.hms_backend.exception.DashboardException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent dashboard queries concurrently on virtual threads. Each
+ * query runs in its own read-only transaction, so it borrows its own pooled
+ * connection, and is given its own timeout. The timeout is the transaction
+ * timeout, which Hibernate applies as the JDBC statement timeout, so the
+ * database cancels a query that runs over it instead of it holding on to the
+ * connection. Per-query and end-to-end timings are kept so the contribution of
+ * every query to the summary latency can be inspected.
+ */
+@Component
+public class DashboardQueryRunner {
+
+    public static final String SUMMARY = "summary";
+
+    private final ExecutorService executor;
+    private final TransactionTemplate readOnly;
+    private final Duration timeout;
+    private final Map<String, Timing> timings = new ConcurrentHashMap<>();
+
+    public DashboardQueryRunner(ExecutorService dashboardQueryExecutor,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${hms.dashboard.query-timeout:5s}") Duration timeout) {
+        this.executor = dashboardQueryExecutor;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readOnly.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+        this.timeout = timeout;
+    }
+
+    public <T> Query<T> fork(String name, Supplier<T> query) {
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
+            long started = System.nanoTime();
+            try {
+                return readOnly.execute(status -> query.get());
+            } finally {
+                record(name, System.nanoTime() - started);
+            }
+        }, executor).orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        return new Query<>(name, future);
+    }
+
+    public void record(String name, long nanos) {
+        timings.computeIfAbsent(name, n -> new Timing()).add(nanos);
+    }
+
+    public List<DashboardQueryTimingDto> timings() {
+        Timing summary = timings.get(SUMMARY);
+        double summaryAvg = summary != null ? summary.avgMillis() : 0;
+
+        List<DashboardQueryTimingDto> result = new ArrayList<>();
+        timings.forEach((name, timing) -> result.add(new DashboardQueryTimingDto(
+                name,
+                timing.calls.sum(),
+                toMillis(timing.last),
+                timing.avgMillis(),
+                toMillis(timing.max.get()),
+                summaryAvg > 0 ? timing.avgMillis() / summaryAvg : 0
+        )));
+        result.sort(Comparator.comparing(DashboardQueryTimingDto::getName));
+        return result;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    public final class Query<T> {
+        private final String name;
+        private final CompletableFuture<T> future;
+
+        private Query(String name, CompletableFuture<T> future) {
+            this.name = name;
+            this.future = future;
+        }
+
+        public T join() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof TimeoutException
+                        || e.getCause() instanceof QueryTimeoutException
+                        || e.getCause() instanceof TransactionTimedOutException) {
+                    throw new DashboardException.QueryTimeoutException(name, timeout);
+                }
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static final class Timing {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+        private volatile long last;
+
+        void add(long nanos) {
+            calls.increment();
+            totalNanos.add(nanos);
+            max.accumulateAndGet(nanos, Math::max);
+            last = nanos;
+        }
+
+        double avgMillis() {
+            long count = calls.sum();
+            return count == 0 ? 0 : toMillis(totalNanos.sum()) / count;
+        }
+    }
+}
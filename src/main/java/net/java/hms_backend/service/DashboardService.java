@@ -1,7 +1,21 @@
 package net.java.hms_backend.service;
 
 import net.java.hms_backend.dto.DashboardDto;
+import net.java.hms_backend.dto.DashboardQueryTimingDto;
+import net.java.hms_backend.dto.OccupancyAnalyticsDto;
+import net.java.hms_backend.dto.TimeSeriesDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface DashboardService {
     DashboardDto getDashboardSummary(int days);
+
+    List<DashboardQueryTimingDto> getQueryTimings();
+
+    OccupancyAnalyticsDto getOccupancyAnalytics(LocalDate from, LocalDate to);
+
+    TimeSeriesDto getTimeSeries(MetricRollupStore.Metric metric, MetricRollupStore.Granularity granularity,
+                                LocalDateTime from, LocalDateTime to);
 }
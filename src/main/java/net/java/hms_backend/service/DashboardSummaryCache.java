@@ -0,0 +1,153 @@
+package net.java.hms_backend.service;
+
+import net.java.hms_backend.dto.DashboardDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of dashboard summaries per {@code days} window. Concurrent
+ * misses for the same window wait on a single computation, and every entry is
+ * dropped once a booking or invoice change has committed.
+ * <p>
+ * The standard windows are kept separately as a pinned set that a background
+ * refresher replaces as a whole. A pinned set computed before the latest
+ * invalidation, from an earlier day, or older than the maximum age is never
+ * served.
+ */
+@Component
+public class DashboardSummaryCache {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final List<Integer> prewarmedWindows;
+    private final Duration prewarmMaxAge;
+    private final ConcurrentHashMap<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReference<Pinned> pinned = new AtomicReference<>();
+
+    public DashboardSummaryCache(@Value("${hms.dashboard.cache-ttl:5s}") Duration ttl,
+                                 @Value("${hms.dashboard.cache-max-entries:32}") int maxEntries,
+                                 @Value("${hms.dashboard.prewarmed-windows:7,30,90,365}") List<Integer> prewarmedWindows,
+                                 @Value("${hms.dashboard.prewarm-max-age:2m}") Duration prewarmMaxAge) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.prewarmedWindows = List.copyOf(prewarmedWindows);
+        this.prewarmMaxAge = prewarmMaxAge;
+    }
+
+    public List<Integer> prewarmedWindows() {
+        return prewarmedWindows;
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public Pinned pinned() {
+        Pinned current = pinned.get();
+        if (current == null || current.generation() != generation.get()) {
+            return null;
+        }
+        DashboardPartials partials = current.partials();
+        if (!partials.today().equals(LocalDate.now())
+                || partials.generatedAt().plus(prewarmMaxAge).isBefore(LocalDateTime.now())) {
+            return null;
+        }
+        return current;
+    }
+
+    /**
+     * Installs a pinned set computed from data read at {@code generation},
+     * unless a set from a later generation is already in place.
+     */
+    public void pin(long generation, DashboardPartials partials, Map<Integer, DashboardDto> windows) {
+        Pinned candidate = new Pinned(generation, partials, Map.copyOf(windows));
+        pinned.accumulateAndGet(candidate, (current, next) ->
+                current == null || next.generation() >= current.generation() ? next : current);
+    }
+
+    public DashboardDto get(int days, Supplier<DashboardDto> loader) {
+        while (true) {
+            long now = System.nanoTime();
+            Entry existing = entries.get(days);
+            if (existing != null) {
+                if (!existing.isExpired(now)) {
+                    return await(existing);
+                }
+                entries.remove(days, existing);
+            }
+
+            if (entries.size() >= maxEntries) {
+                entries.values().removeIf(entry -> entry.isExpired(now));
+                if (entries.size() >= maxEntries) {
+                    return loader.get();
+                }
+            }
+
+            Entry mine = new Entry();
+            Entry winner = entries.putIfAbsent(days, mine);
+            if (winner != null) {
+                continue;
+            }
+
+            try {
+                DashboardDto summary = loader.get();
+                mine.expiresAt = System.nanoTime() + ttlNanos;
+                mine.future.complete(summary);
+                return summary;
+            } catch (RuntimeException e) {
+                entries.remove(days, mine);
+                mine.future.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onDailyStatsChanged(DailyStatsChangedEvent event) {
+        invalidate();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    private static DashboardDto await(Entry entry) {
+        try {
+            return entry.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public record Pinned(long generation, DashboardPartials partials, Map<Integer, DashboardDto> windows) {
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<DashboardDto> future = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        boolean isExpired(long now) {
+            return future.isDone() && now - expiresAt > 0;
+        }
+    }
+}
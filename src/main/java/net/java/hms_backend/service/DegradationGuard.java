@@ -0,0 +1,241 @@
+package net.java.hms_backend.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Stale-while-revalidate for heavy read endpoints. Every successful read is
+ * kept as the last good result for its key. While the connection pool has
+ * threads queueing for a connection, or has no idle connection and the key's
+ * recent load latency is over the threshold, callers get that last good result
+ * instead, the request is flagged stale (see {@link #STALE_AS_OF}) and a
+ * single background reload per key is started. The reload holds no connection
+ * of its own unless the caller asks for a read-only transaction around it
+ * with {@link #readInTransaction}, because loaders that fork their own
+ * queries would otherwise keep one more connection idle while the pool is
+ * already short.
+ * Results older than the maximum staleness are never served and are evicted
+ * when the key set is full; results invalidated by a committed write are
+ * dropped.
+ */
+@Component
+public class DegradationGuard {
+
+    public static final String STALE_AS_OF = DegradationGuard.class.getName() + ".STALE_AS_OF";
+
+    public enum Mode { AUTO, FORCED, OFF }
+
+    private static final int MAX_KEYS = 256;
+    private static final double LATENCY_WEIGHT = 0.2;
+
+    private final HikariDataSource pool;
+    private final TransactionTemplate readOnly;
+    private final ExecutorService executor;
+    private final int poolWaitThreshold;
+    private final long latencyThresholdNanos;
+    private final Duration maxStaleness;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Mode mode;
+
+    public DegradationGuard(DataSource dataSource,
+                            PlatformTransactionManager transactionManager,
+                            ExecutorService dashboardQueryExecutor,
+                            @Value("${hms.degradation.mode:AUTO}") Mode mode,
+                            @Value("${hms.degradation.pool-wait-threshold:1}") int poolWaitThreshold,
+                            @Value("${hms.degradation.latency-threshold:750ms}") Duration latencyThreshold,
+                            @Value("${hms.degradation.max-staleness:5m}") Duration maxStaleness) {
+        this.pool = poolOf(dataSource);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.executor = dashboardQueryExecutor;
+        this.mode = mode;
+        this.poolWaitThreshold = poolWaitThreshold;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.maxStaleness = maxStaleness;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Runs {@code loader}, or serves the last good result for {@code key} while
+     * degraded. A background reload runs with the caller's security context
+     * and outside any transaction, so the loader must open its own.
+     */
+    public <T> T read(String key, Supplier<T> loader) {
+        return read(key, loader, false);
+    }
+
+    /**
+     * Like {@link #read}, but a background reload runs in a read-only
+     * transaction, for loaders that need one to map lazy associations.
+     */
+    public <T> T readInTransaction(String key, Supplier<T> loader) {
+        return read(key, loader, true);
+    }
+
+    public boolean isPoolSaturated() {
+        HikariPoolMXBean stats = pool != null ? pool.getHikariPoolMXBean() : null;
+        return stats != null && stats.getThreadsAwaitingConnection() >= poolWaitThreshold;
+    }
+
+    /**
+     * Drops the last good results of every key starting with {@code prefix}
+     * once the surrounding transaction commits.
+     */
+    public void invalidateAfterCommit(String prefix) {
+        AfterCommit.run(() -> invalidate(prefix));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyStatsChanged(DailyStatsChangedEvent event) {
+        invalidate("dashboard:");
+        invalidate("analytics:");
+    }
+
+    private void invalidate(String prefix) {
+        generation.incrementAndGet();
+        entries.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T read(String key, Supplier<T> loader, boolean transactional) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.value != null && isDegraded(entry)
+                && entry.loadedAt.plus(maxStaleness).isAfter(LocalDateTime.now())) {
+            markStale(entry.loadedAt);
+            revalidate(key, entry, loader, transactional);
+            return (T) entry.value;
+        }
+        return load(key, loader);
+    }
+
+    private boolean isDegraded(Entry entry) {
+        return switch (mode) {
+            case FORCED -> true;
+            case OFF -> false;
+            case AUTO -> isPoolSaturated() || (entry.latencyNanos > latencyThresholdNanos && isPoolBusy());
+        };
+    }
+
+    private boolean isPoolBusy() {
+        HikariPoolMXBean stats = pool != null ? pool.getHikariPoolMXBean() : null;
+        return stats != null && stats.getIdleConnections() == 0;
+    }
+
+    private <T> T load(String key, Supplier<T> loader) {
+        long loadGeneration = generation.get();
+        long started = System.nanoTime();
+        T value = loader.get();
+        long elapsed = System.nanoTime() - started;
+
+        if (generation.get() != loadGeneration) {
+            return value;
+        }
+        Entry previous = entries.get(key);
+        if (previous == null && entries.size() >= MAX_KEYS) {
+            evict();
+        }
+        long latency = previous == null || previous.latencyNanos == 0
+                ? elapsed
+                : (long) (previous.latencyNanos * (1 - LATENCY_WEIGHT) + elapsed * LATENCY_WEIGHT);
+        entries.put(key, new Entry(value, LocalDateTime.now(), latency));
+        return value;
+    }
+
+    /**
+     * Removes results too old to be served, and the oldest remaining ones
+     * while the key set is still full.
+     */
+    private void evict() {
+        LocalDateTime expired = LocalDateTime.now().minus(maxStaleness);
+        entries.values().removeIf(entry -> entry.loadedAt.isBefore(expired));
+        int excess = entries.size() - MAX_KEYS + 1;
+        if (excess > 0) {
+            entries.entrySet().stream()
+                    .sorted(Comparator.comparing(e -> e.getValue().loadedAt))
+                    .limit(excess)
+                    .toList()
+                    .forEach(e -> entries.remove(e.getKey(), e.getValue()));
+        }
+    }
+
+    private void revalidate(String key, Entry entry, Supplier<?> loader, boolean transactional) {
+        if (entry.revalidating.compareAndSet(false, true)) {
+            try {
+                executor.execute(DelegatingSecurityContextRunnable.create(() -> {
+                    try {
+                        if (transactional) {
+                            readOnly.executeWithoutResult(status -> load(key, loader));
+                        } else {
+                            load(key, loader);
+                        }
+                    } finally {
+                        entry.revalidating.set(false);
+                    }
+                }, SecurityContextHolder.getContext()));
+            } catch (RuntimeException e) {
+                entry.revalidating.set(false);
+            }
+        }
+    }
+
+    private static void markStale(LocalDateTime loadedAt) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(STALE_AS_OF, loadedAt, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static HikariDataSource poolOf(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class);
+            }
+        } catch (SQLException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final LocalDateTime loadedAt;
+        private final long latencyNanos;
+        private final AtomicBoolean revalidating = new AtomicBoolean();
+
+        Entry(Object value, LocalDateTime loadedAt, long latencyNanos) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.latencyNanos = latencyNanos;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package net.java.hms_backend.service;
+
+import jakarta.annotation.PostConstruct;
+import net.java.hms_backend.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Accent-insensitive fuzzy search over guest names, ranked by trigram similarity.
+ * On PostgreSQL the lookup goes to the pg_trgm GIN index on booking; elsewhere
+ * an in-process trigram index built the same way as pg_trgm is used instead.
+ */
+@Service
+public class GuestNameIndex {
+
+    private static final String POSTGRESQL = "postgresql";
+    private static final double SIMILARITY_THRESHOLD = 0.3;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final BookingRepository bookingRepository;
+    private final boolean inProcess;
+
+    private final Map<Long, Set<String>> trigramsByBooking = new ConcurrentHashMap<>();
+    private final Map<Long, String> namesByBooking = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    public GuestNameIndex(BookingRepository bookingRepository,
+                          @Value("${spring.sql.init.platform:}") String platform) {
+        this.bookingRepository = bookingRepository;
+        this.inProcess = !POSTGRESQL.equalsIgnoreCase(platform);
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!inProcess) {
+            return;
+        }
+        for (BookingRepository.GuestNameView view : bookingRepository.findAllGuestNames()) {
+            put(view.getId(), view.getGuestFullName());
+        }
+    }
+
+    public List<Long> search(String query, int limit) {
+        if (!inProcess) {
+            return bookingRepository.searchIdsByGuestNameSimilarity(query.toLowerCase(Locale.ROOT), limit);
+        }
+
+        String normalized = normalize(query);
+        Set<String> queryTrigrams = trigrams(normalized);
+        if (queryTrigrams.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> candidates = new HashSet<>();
+        for (String trigram : queryTrigrams) {
+            candidates.addAll(postings.getOrDefault(trigram, Set.of()));
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (Long bookingId : candidates) {
+            Set<String> bookingTrigrams = trigramsByBooking.get(bookingId);
+            String name = namesByBooking.get(bookingId);
+            if (bookingTrigrams == null || name == null) {
+                continue;
+            }
+            double score = similarity(queryTrigrams, bookingTrigrams);
+            if (score >= SIMILARITY_THRESHOLD || name.contains(normalized)) {
+                scores.put(bookingId, score);
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    public void put(Long bookingId, String guestFullName) {
+        if (!inProcess || bookingId == null) {
+            return;
+        }
+        remove(bookingId);
+        if (guestFullName == null || guestFullName.isBlank()) {
+            return;
+        }
+        String normalized = normalize(guestFullName);
+        Set<String> bookingTrigrams = trigrams(normalized);
+        namesByBooking.put(bookingId, normalized);
+        trigramsByBooking.put(bookingId, bookingTrigrams);
+        for (String trigram : bookingTrigrams) {
+            postings.computeIfAbsent(trigram, t -> ConcurrentHashMap.newKeySet()).add(bookingId);
+        }
+    }
+
+    public void remove(Long bookingId) {
+        if (!inProcess || bookingId == null) {
+            return;
+        }
+        namesByBooking.remove(bookingId);
+        Set<String> previous = trigramsByBooking.remove(bookingId);
+        if (previous != null) {
+            for (String trigram : previous) {
+                Set<Long> ids = postings.get(trigram);
+                if (ids != null) {
+                    ids.remove(bookingId);
+                }
+            }
+        }
+    }
+
+    public void putAfterCommit(Long bookingId, String guestFullName) {
+        AfterCommit.run(() -> put(bookingId, guestFullName));
+    }
+
+    public void removeAfterCommit(Long bookingId) {
+        AfterCommit.run(() -> remove(bookingId));
+    }
+
+    static String normalize(String value) {
+        String lower = value.toLowerCase(Locale.ROOT).replace('đ', 'd');
+        String stripped = COMBINING_MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(stripped).replaceAll(" ").trim();
+    }
+
+    static Set<String> trigrams(String normalized) {
+        Set<String> result = new LinkedHashSet<>();
+        for (String word : normalized.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                result.add(padded.substring(i, i + 3));
+            }
+        }
+        return result;
+    }
+
+    private static double similarity(Set<String> a, Set<String> b) {
+        int shared = 0;
+        for (String trigram : a) {
+            if (b.contains(trigram)) {
+                shared++;
+            }
+        }
+        int union = a.size() + b.size() - shared;
+        return union == 0 ? 0 : (double) shared / union;
+    }
+}
@@ -0,0 +1,241 @@
+package net.java.hms_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.java.hms_backend.entity.IdempotencyRecord;
+import net.java.hms_backend.exception.IdempotencyException;
+import net.java.hms_backend.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Replays the stored response for a repeated Idempotency-Key instead of running
+ * the create again. Keys are scoped per user and endpoint and kept in a bounded
+ * in-memory cache with a TTL. In persistent mode the key is also inserted into
+ * the idempotency_record table in the same transaction as the create, so the
+ * create and its stored response commit together; a second instance using the
+ * same key hits the unique key and replays the committed response instead.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final ObjectMapper objectMapper;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final boolean persistent;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    public IdempotencyService(ObjectMapper objectMapper,
+                              IdempotencyRecordRepository idempotencyRecordRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${hms.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${hms.idempotency.max-entries:10000}") int maxEntries,
+                              @Value("${hms.idempotency.persistent:false}") boolean persistent) {
+        this.objectMapper = objectMapper;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.persistent = persistent;
+    }
+
+    public <T> ResponseEntity<T> execute(String key, String endpoint, Object request, HttpStatus status,
+                                         Class<T> responseType, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return ResponseEntity.status(status).body(action.get());
+        }
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        String scopedKey = username + ":" + endpoint + ":" + key;
+        String requestHash = hash(request);
+        LocalDateTime now = LocalDateTime.now();
+
+        Entry reserved = Entry.pending(requestHash, now.plus(ttl));
+        Entry existing = cache.compute(scopedKey,
+                (k, entry) -> entry == null || entry.expiresAt().isBefore(now) ? reserved : entry);
+        if (existing != reserved) {
+            return replay(key, existing, requestHash, responseType);
+        }
+        trimIfFull(now);
+
+        Entry completed;
+        T body;
+        try {
+            if (persistent) {
+                Entry stored = storedEntry(scopedKey, now);
+                if (stored != null) {
+                    cache.remove(scopedKey, reserved);
+                    cacheCompleted(scopedKey, stored);
+                    return replay(key, stored, requestHash, responseType);
+                }
+            }
+            body = persistent
+                    ? runRecorded(scopedKey, requestHash, status, now, action)
+                    : action.get();
+            completed = new Entry(requestHash, false, status.value(), serialize(body), now.plus(ttl));
+        } catch (KeyTakenException e) {
+            cache.remove(scopedKey, reserved);
+            Entry stored = storedEntry(scopedKey, now);
+            if (stored == null) {
+                throw new IdempotencyException.RequestInProgressException(key);
+            }
+            cacheCompleted(scopedKey, stored);
+            return replay(key, stored, requestHash, responseType);
+        } catch (RuntimeException e) {
+            cache.remove(scopedKey, reserved);
+            throw e;
+        }
+
+        cache.replace(scopedKey, reserved, completed);
+        return ResponseEntity.status(status).body(body);
+    }
+
+    @Scheduled(fixedRate = 3600000)
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        cache.values().removeIf(entry -> entry.expiresAt().isBefore(now));
+        if (persistent) {
+            idempotencyRecordRepository.deleteExpired(now);
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(String key, Entry entry, String requestHash, Class<T> responseType) {
+        if (!entry.requestHash().equals(requestHash)) {
+            throw new IdempotencyException.KeyReusedException(key);
+        }
+        if (entry.pending()) {
+            throw new IdempotencyException.RequestInProgressException(key);
+        }
+        return ResponseEntity.status(entry.statusCode())
+                .header(REPLAYED_HEADER, "true")
+                .body(deserialize(entry.responseBody(), responseType));
+    }
+
+    /**
+     * The committed response stored for the key by any instance, or null when
+     * there is none. An expired record is deleted so the key can be reused.
+     */
+    private Entry storedEntry(String scopedKey, LocalDateTime now) {
+        IdempotencyRecord record = idempotencyRecordRepository.findByIdempotencyKey(scopedKey).orElse(null);
+        if (record == null) {
+            return null;
+        }
+        if (record.getExpiresAt().isBefore(now)) {
+            idempotencyRecordRepository.delete(record);
+            return null;
+        }
+        return new Entry(record.getRequestHash(), false, record.getStatusCode(),
+                record.getResponseBody(), record.getExpiresAt());
+    }
+
+    /**
+     * Runs the action in one transaction with the insert of its idempotency
+     * record, which is inserted first so a concurrent create with the same key
+     * fails on the unique key before doing any work.
+     */
+    private <T> T runRecorded(String scopedKey, String requestHash, HttpStatus status, LocalDateTime now,
+                              Supplier<T> action) {
+        return transactionTemplate.execute(tx -> {
+            IdempotencyRecord record = new IdempotencyRecord();
+            record.setIdempotencyKey(scopedKey);
+            record.setRequestHash(requestHash);
+            record.setCreatedAt(now);
+            record.setExpiresAt(now.plus(ttl));
+            try {
+                record = idempotencyRecordRepository.saveAndFlush(record);
+            } catch (DataIntegrityViolationException e) {
+                throw new KeyTakenException();
+            }
+
+            T body = action.get();
+            record.setStatusCode(status.value());
+            record.setResponseBody(serialize(body));
+            idempotencyRecordRepository.save(record);
+            return body;
+        });
+    }
+
+    private void cacheCompleted(String scopedKey, Entry entry) {
+        cache.merge(scopedKey, entry, (current, stored) -> current.pending() ? current : stored);
+    }
+
+    private void trimIfFull(LocalDateTime now) {
+        if (cache.size() <= maxEntries) {
+            return;
+        }
+        cache.values().removeIf(entry -> entry.expiresAt().isBefore(now));
+        int excess = cache.size() - maxEntries * 9 / 10;
+        if (excess > 0) {
+            cache.entrySet().stream()
+                    .filter(e -> !e.getValue().pending())
+                    .sorted(Comparator.comparing(e -> e.getValue().expiresAt()))
+                    .limit(excess)
+                    .toList()
+                    .forEach(e -> cache.remove(e.getKey(), e.getValue()));
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    private String serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store idempotent response", e);
+        }
+    }
+
+    private <T> T deserialize(String body, Class<T> type) {
+        try {
+            return objectMapper.readValue(body.getBytes(StandardCharsets.UTF_8), type);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not replay idempotent response", e);
+        }
+    }
+
+    private record Entry(String requestHash, boolean pending, int statusCode, String responseBody,
+                         LocalDateTime expiresAt) {
+
+        static Entry pending(String requestHash, LocalDateTime expiresAt) {
+            return new Entry(requestHash, true, 0, null, expiresAt);
+        }
+    }
+
+    /**
+     * Another request inserted the same key first; thrown out of the
+     * transaction so it rolls back before the stored response is read.
+     */
+    private static class KeyTakenException extends RuntimeException {
+    }
+}
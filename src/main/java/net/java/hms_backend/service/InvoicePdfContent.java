@@ -0,0 +1,90 @@
+package net.java.hms_backend.service;
+
+import net.java.hms_backend.entity.HotelInfo;
+import net.java.hms_backend.repository.InvoiceRepository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+/**
+ * Everything printed on an invoice PDF. The fingerprint is a SHA-256 over all
+ * of it, the invoice version and the template revision, so two contents with
+ * the same fingerprint render to the same document.
+ */
+public record InvoicePdfContent(
+        Long invoiceId,
+        Long version,
+        BigDecimal amount,
+        BigDecimal paidAmount,
+        String status,
+        LocalDateTime issuedDate,
+        LocalDateTime dueDate,
+        String paymentMethod,
+        String notes,
+        Long bookingId,
+        String guestFullName,
+        Integer roomNumber,
+        Hotel hotel,
+        PricingEngine.Quote quote
+) {
+
+    public static InvoicePdfContent of(InvoiceRepository.InvoicePdfView view, Hotel hotel, PricingEngine.Quote quote) {
+        return new InvoicePdfContent(
+                view.getId(),
+                view.getVersion(),
+                view.getAmount(),
+                view.getPaidAmount(),
+                view.getStatus(),
+                view.getIssuedDate(),
+                view.getDueDate(),
+                view.getPaymentMethod(),
+                view.getNotes(),
+                view.getBookingId(),
+                view.getGuestFullName(),
+                view.getRoomNumber(),
+                hotel,
+                quote
+        );
+    }
+
+    public String fingerprint() {
+        String canonical = String.join("\u001f",
+                String.valueOf(InvoicePdfRenderer.TEMPLATE_REVISION),
+                String.valueOf(invoiceId),
+                String.valueOf(version),
+                plain(amount),
+                plain(paidAmount),
+                String.valueOf(status),
+                String.valueOf(issuedDate),
+                String.valueOf(dueDate),
+                String.valueOf(paymentMethod),
+                String.valueOf(notes),
+                String.valueOf(bookingId),
+                String.valueOf(guestFullName),
+                String.valueOf(roomNumber),
+                String.valueOf(hotel),
+                String.valueOf(quote)
+        );
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.toPlainString() : "null";
+    }
+
+    public record Hotel(String name, String address, String phone, String email, String taxCode) {
+
+        public static Hotel of(HotelInfo info) {
+            return new Hotel(info.getName(), info.getAddress(), info.getPhone(), info.getEmail(), info.getTaxCode());
+        }
+    }
+}
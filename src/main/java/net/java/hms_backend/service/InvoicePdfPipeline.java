@@ -0,0 +1,346 @@
+package net.java.hms_backend.service;
+
+import com.lowagie.text.DocumentException;
+import jakarta.annotation.PreDestroy;
+import net.java.hms_backend.exception.InvoiceException;
+import net.java.hms_backend.exception.ResourceNotFoundException;
+import net.java.hms_backend.repository.HotelInfoRepository;
+import net.java.hms_backend.repository.InvoiceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Renders invoice PDFs on a bounded worker pool straight into files on local
+ * disk, named by the content fingerprint. A download reads one projection row
+ * and, on a hit, only the cached file; concurrent misses for the same content
+ * share a single render. When the queue is full, or a render does not finish
+ * in time, the caller gets {@link InvoiceException.PdfRendererBusyException}.
+ * Files neither written nor served within the maximum age are pruned. Hits are
+ * tracked in memory rather than by touching the file, whose modification time
+ * is the Last-Modified of the download.
+ */
+@Component
+public class InvoicePdfPipeline {
+
+    private static final int EXPORT_BATCH_SIZE = 100;
+
+    private final InvoiceRepository invoiceRepository;
+    private final HotelInfoRepository hotelInfoRepository;
+    private final PricingEngine pricingEngine;
+    private final InvoicePdfRenderer renderer;
+    private final Path cacheDir;
+    private final Duration renderTimeout;
+    private final Duration maxAge;
+    private final int exportWindow;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Instant> lastHits = new ConcurrentHashMap<>();
+    private final AtomicLong hotelGeneration = new AtomicLong();
+
+    private volatile InvoicePdfContent.Hotel hotel;
+
+    public InvoicePdfPipeline(InvoiceRepository invoiceRepository,
+                              HotelInfoRepository hotelInfoRepository,
+                              PricingEngine pricingEngine,
+                              InvoicePdfRenderer renderer,
+                              @Value("${hms.pdf.cache-dir:}") String cacheDir,
+                              @Value("${hms.pdf.workers:2}") int workers,
+                              @Value("${hms.pdf.queue-capacity:64}") int queueCapacity,
+                              @Value("${hms.pdf.render-timeout:30s}") Duration renderTimeout,
+                              @Value("${hms.pdf.cache-max-age:30d}") Duration maxAge) {
+        this.invoiceRepository = invoiceRepository;
+        this.hotelInfoRepository = hotelInfoRepository;
+        this.pricingEngine = pricingEngine;
+        this.renderer = renderer;
+        this.renderTimeout = renderTimeout;
+        this.maxAge = maxAge;
+        this.exportWindow = workers * 2;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("invoice-pdf-", 0).daemon().factory());
+        try {
+            this.cacheDir = cacheDir.isBlank()
+                    ? Files.createTempDirectory("hms-invoice-pdf")
+                    : Files.createDirectories(Path.of(cacheDir));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create invoice PDF cache directory", e);
+        }
+    }
+
+    /**
+     * Returns the cached PDF for the invoice's current content, rendering it
+     * first when there is none.
+     */
+    public RenderedPdf fetch(Long invoiceId) {
+        InvoicePdfContent content = load(invoiceId);
+        String fingerprint = content.fingerprint();
+        Path file = fileFor(fingerprint);
+        if (hit(fingerprint, file)) {
+            return new RenderedPdf(file, fingerprint, content, true);
+        }
+        return new RenderedPdf(await(render(content, fingerprint)), fingerprint, content, false);
+    }
+
+    /**
+     * Returns {@code pdf} again, rendering it anew when its file was pruned
+     * after {@link #fetch} found it.
+     */
+    public RenderedPdf refetch(RenderedPdf pdf) {
+        if (hit(pdf.fingerprint(), pdf.file())) {
+            return pdf;
+        }
+        Path file = await(render(pdf.content(), pdf.fingerprint()));
+        return new RenderedPdf(file, pdf.fingerprint(), pdf.content(), false);
+    }
+
+    /**
+     * Writes the PDFs of {@code invoiceIds} into {@code out} as a ZIP with one
+     * {@code invoice_<id>.pdf} entry each, in the given order. Invoice, booking
+     * and room data and room rates are loaded once per batch; renders run on
+     * the worker pool, at most one window ahead of the entry being copied from
+     * disk, so memory stays flat however many invoices are exported. When the
+     * pool is saturated the export renders on its own thread instead.
+     */
+    public void exportZip(List<Long> invoiceIds, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        zip.setLevel(Deflater.BEST_SPEED);
+        Deque<Pending> pending = new ArrayDeque<>();
+        for (int from = 0; from < invoiceIds.size(); from += EXPORT_BATCH_SIZE) {
+            List<Long> batch = invoiceIds.subList(from, Math.min(invoiceIds.size(), from + EXPORT_BATCH_SIZE));
+            for (InvoicePdfContent content : loadBatch(batch)) {
+                pending.add(new Pending(content, cachedOrRendered(content)));
+                if (pending.size() > exportWindow) {
+                    writeEntry(zip, pending.poll());
+                }
+            }
+        }
+        while (!pending.isEmpty()) {
+            writeEntry(zip, pending.poll());
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    /**
+     * Queues a render of the invoice's current content unless it is already
+     * cached or being rendered. Returns without waiting for the render.
+     */
+    public void prerender(Long invoiceId) {
+        InvoicePdfContent content = load(invoiceId);
+        String fingerprint = content.fingerprint();
+        if (!Files.exists(fileFor(fingerprint))) {
+            render(content, fingerprint);
+        }
+    }
+
+    public void hotelInfoChangedAfterCommit() {
+        AfterCommit.run(() -> {
+            hotelGeneration.incrementAndGet();
+            hotel = null;
+        });
+    }
+
+    @Scheduled(fixedRateString = "${hms.pdf.prune-interval-ms:3600000}")
+    public void prune() {
+        Instant cutoff = Instant.now().minus(maxAge);
+        FileTime tmpCutoff = FileTime.from(Instant.now().minus(renderTimeout.multipliedBy(2)));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir, "*.{pdf,tmp}")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                boolean expired;
+                if (name.endsWith(".tmp")) {
+                    expired = Files.getLastModifiedTime(file).compareTo(tmpCutoff) < 0;
+                } else {
+                    Instant lastHit = lastHits.get(name.substring(0, name.length() - ".pdf".length()));
+                    expired = Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)
+                            && (lastHit == null || lastHit.isBefore(cutoff));
+                }
+                if (expired) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            // best effort, retried on the next run
+        }
+        lastHits.values().removeIf(lastHit -> lastHit.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private InvoicePdfContent load(Long invoiceId) {
+        InvoiceRepository.InvoicePdfView view = invoiceRepository.findPdfViewById(invoiceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Invoice", "id", invoiceId));
+        PricingEngine.Quote quote = pricingEngine.quote(
+                view.getRoomId(), view.getBookingType(), view.getCheckInDate(), view.getCheckOutDate());
+        return InvoicePdfContent.of(view, hotel(), quote);
+    }
+
+    private Path await(CompletableFuture<Path> render) {
+        try {
+            return render.get(renderTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new InvoiceException.PdfRendererBusyException();
+        } catch (ExecutionException e) {
+            throw new InvoiceException.PdfGenerationException("Error while generating PDF", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InvoiceException.PdfGenerationException("Interrupted while generating PDF", e);
+        }
+    }
+
+    private List<InvoicePdfContent> loadBatch(List<Long> invoiceIds) {
+        List<InvoiceRepository.InvoicePdfView> views = invoiceRepository.findPdfViewsByIdIn(invoiceIds);
+        pricingEngine.preload(views.stream().map(InvoiceRepository.InvoicePdfView::getRoomId).distinct().toList());
+        InvoicePdfContent.Hotel current = hotel();
+        return views.stream()
+                .map(view -> InvoicePdfContent.of(view, current, pricingEngine.quote(
+                        view.getRoomId(), view.getBookingType(), view.getCheckInDate(), view.getCheckOutDate())))
+                .toList();
+    }
+
+    private CompletableFuture<Path> cachedOrRendered(InvoicePdfContent content) {
+        String fingerprint = content.fingerprint();
+        Path file = fileFor(fingerprint);
+        if (hit(fingerprint, file)) {
+            return CompletableFuture.completedFuture(file);
+        }
+        try {
+            return render(content, fingerprint);
+        } catch (InvoiceException.PdfRendererBusyException e) {
+            try {
+                return CompletableFuture.completedFuture(write(fingerprint, content));
+            } catch (Exception renderFailure) {
+                return CompletableFuture.failedFuture(renderFailure);
+            }
+        }
+    }
+
+    private void writeEntry(ZipOutputStream zip, Pending pending) throws IOException {
+        InvoicePdfContent content = pending.content();
+        try (InputStream in = openOrRender(await(pending.file()), content)) {
+            zip.putNextEntry(new ZipEntry("invoice_" + content.invoiceId() + ".pdf"));
+            in.transferTo(zip);
+            zip.closeEntry();
+        }
+    }
+
+    /**
+     * Opens the cached file, rendering it again on this thread when it was
+     * pruned after it was found.
+     */
+    private InputStream openOrRender(Path file, InvoicePdfContent content) throws IOException {
+        try {
+            return Files.newInputStream(file);
+        } catch (NoSuchFileException e) {
+            try {
+                return Files.newInputStream(write(content.fingerprint(), content));
+            } catch (DocumentException renderFailure) {
+                throw new InvoiceException.PdfGenerationException("Error while generating PDF", renderFailure);
+            }
+        }
+    }
+
+    private InvoicePdfContent.Hotel hotel() {
+        InvoicePdfContent.Hotel current = hotel;
+        if (current == null) {
+            long generation = hotelGeneration.get();
+            current = hotelInfoRepository.findAll().stream().findFirst()
+                    .map(InvoicePdfContent.Hotel::of)
+                    .orElseThrow(() -> new ResourceNotFoundException("HotelInfo", "id", "any"));
+            if (hotelGeneration.get() == generation) {
+                hotel = current;
+            }
+        }
+        return current;
+    }
+
+    private CompletableFuture<Path> render(InvoicePdfContent content, String fingerprint) {
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(fingerprint, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    created.complete(write(fingerprint, content));
+                } catch (Exception e) {
+                    created.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(fingerprint, created);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(fingerprint, created);
+            throw new InvoiceException.PdfRendererBusyException();
+        }
+        return created;
+    }
+
+    private Path write(String fingerprint, InvoicePdfContent content) throws IOException, DocumentException {
+        Path file = fileFor(fingerprint);
+        Path tmp = Files.createTempFile(cacheDir, fingerprint, ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                renderer.render(content, out);
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return file;
+    }
+
+    /**
+     * Whether the file is cached. The hit is recorded first, so a prune that
+     * runs concurrently keeps the file unless it already decided to delete it.
+     */
+    private boolean hit(String fingerprint, Path file) {
+        lastHits.put(fingerprint, Instant.now());
+        return Files.exists(file);
+    }
+
+    private Path fileFor(String fingerprint) {
+        return cacheDir.resolve(fingerprint + ".pdf");
+    }
+
+    private record Pending(InvoicePdfContent content, CompletableFuture<Path> file) {
+    }
+
+    public record RenderedPdf(Path file, String fingerprint, InvoicePdfContent content, boolean cached) {
+    }
+}
@@ -0,0 +1,167 @@
+package net.java.hms_backend.service;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import net.java.hms_backend.entity.PriceType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Invoice PDF template. Fonts are loaded once: the configured TrueType fonts
+ * are embedded as Unicode so Vietnamese text renders, with the standard
+ * Helvetica fonts as fallback when they are missing. The hotel header and the
+ * fixed table cells are laid out once and only rebuilt when the hotel info
+ * changes, so a render just fills in the per-invoice text. Rendering touches
+ * no repositories, so it can run on any thread. Bump the template revision on
+ * every layout change so cached documents are not served for the old layout.
+ */
+@Component
+public class InvoicePdfRenderer {
+
+    public static final int TEMPLATE_REVISION = 2;
+
+    private static final int[] SERVICE_WIDTHS = {4, 1, 2, 2};
+
+    private final Font bodyFont;
+    private final Font hotelFont;
+    private final Font titleFont;
+    private final List<PdfPCell> serviceHeader;
+    private final List<Element> footer;
+
+    private volatile Header header;
+
+    public InvoicePdfRenderer(@Value("${hms.pdf.font-path:}") String fontPath,
+                              @Value("${hms.pdf.bold-font-path:}") String boldFontPath) {
+        BaseFont regular = loadFont(fontPath, BaseFont.HELVETICA);
+        BaseFont bold = loadFont(boldFontPath, BaseFont.HELVETICA_BOLD);
+        this.bodyFont = new Font(regular, 12);
+        this.hotelFont = new Font(bold, 14);
+        this.titleFont = new Font(bold, 20);
+        this.serviceHeader = List.of(cell("Dịch vụ"), cell("SL"), cell("Đơn giá"), cell("Thành tiền"));
+        this.footer = List.of(
+                new Paragraph(" ", bodyFont),
+                new Paragraph("Xin cam on Quy khach da su dung dich vu cua chung toi!", hotelFont)
+        );
+    }
+
+    public void render(InvoicePdfContent content, OutputStream out) throws DocumentException {
+        Document document = new Document(PageSize.A4, 36, 36, 54, 36);
+        PdfWriter.getInstance(document, out);
+
+        document.open();
+
+        addAll(document, headerFor(content.hotel()).elements());
+
+        paragraph(document, "Số hóa đơn: " + content.invoiceId());
+        paragraph(document, "Mã Booking: " + content.bookingId());
+        paragraph(document, "Khách hàng: " + content.guestFullName());
+        paragraph(document, "Số phòng: " + content.roomNumber());
+        paragraph(document, "Ngày lập: " + content.issuedDate());
+        paragraph(document, "Hạn thanh toán: " + content.dueDate());
+        paragraph(document, "Trạng thái: " + content.status());
+        paragraph(document, " ");
+
+        PdfPTable serviceTable = new PdfPTable(SERVICE_WIDTHS.length);
+        serviceTable.setWidthPercentage(100);
+        serviceTable.setWidths(SERVICE_WIDTHS);
+        serviceHeader.forEach(serviceTable::addCell);
+
+        PricingEngine.Quote quote = content.quote();
+        String unit = quote.priceType() == PriceType.HOURLY ? "giờ" : "đêm";
+        serviceTable.addCell(cell("Tiền phòng (" + quote.units() + " " + unit + ")"));
+        serviceTable.addCell(cell(String.valueOf(quote.units())));
+        serviceTable.addCell(cell(PricingEngine.toAmount(quote.unitPrice()).toPlainString()));
+        serviceTable.addCell(cell(quote.amount().toPlainString()));
+
+        document.add(serviceTable);
+        paragraph(document, " ");
+
+        BigDecimal subTotal = content.amount();
+        BigDecimal paidAmount = content.paidAmount();
+
+        PdfPTable summaryTable = new PdfPTable(2);
+        summaryTable.setWidthPercentage(50);
+        summaryTable.setHorizontalAlignment(Element.ALIGN_RIGHT);
+
+        summaryTable.addCell(cell("Tổng tiền"));
+        summaryTable.addCell(cell(subTotal.toPlainString()));
+
+        summaryTable.addCell(cell("Đã thanh toán"));
+        summaryTable.addCell(cell(paidAmount.toPlainString()));
+
+        summaryTable.addCell(cell("Còn lại"));
+        summaryTable.addCell(cell(subTotal.subtract(paidAmount).toPlainString()));
+
+        document.add(summaryTable);
+        paragraph(document, " ");
+
+        paragraph(document, "Phương thức thanh toán: " + (content.paymentMethod() != null ? content.paymentMethod() : "Chưa xác định"));
+        paragraph(document, "Ghi chú: " + (content.notes() != null ? content.notes() : ""));
+        addAll(document, footer);
+
+        document.close();
+    }
+
+    private Header headerFor(InvoicePdfContent.Hotel hotel) {
+        Header current = header;
+        if (current == null || !current.hotel().equals(hotel)) {
+            Paragraph title = new Paragraph("HOA DON THANH TOAN (INVOICE)", titleFont);
+            title.setAlignment(Element.ALIGN_CENTER);
+            current = new Header(hotel, List.of(
+                    new Paragraph(hotel.name(), hotelFont),
+                    new Paragraph(hotel.address(), bodyFont),
+                    new Paragraph("Phone: " + hotel.phone() + " | Email: " + hotel.email(), bodyFont),
+                    new Paragraph("MST: " + hotel.taxCode(), bodyFont),
+                    new Paragraph(" ", bodyFont),
+                    title,
+                    new Paragraph(" ", bodyFont)
+            ));
+            header = current;
+        }
+        return current;
+    }
+
+    private void paragraph(Document document, String text) throws DocumentException {
+        document.add(new Paragraph(text, bodyFont));
+    }
+
+    private PdfPCell cell(String text) {
+        return new PdfPCell(new Phrase(text, bodyFont));
+    }
+
+    private static void addAll(Document document, List<Element> elements) throws DocumentException {
+        for (Element element : elements) {
+            document.add(element);
+        }
+    }
+
+    private static BaseFont loadFont(String path, String fallback) {
+        try {
+            if (!path.isBlank() && Files.isReadable(Path.of(path))) {
+                return BaseFont.createFont(path, BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
+            }
+            return BaseFont.createFont(fallback, BaseFont.CP1252, BaseFont.NOT_EMBEDDED);
+        } catch (DocumentException | IOException e) {
+            throw new IllegalStateException("Cannot load invoice PDF font " + path, e);
+        }
+    }
+
+    private record Header(InvoicePdfContent.Hotel hotel, List<Element> elements) {
+    }
+}
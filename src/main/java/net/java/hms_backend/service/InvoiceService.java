@@ -1,9 +1,13 @@
 package net.java.hms_backend.service;
 
+import net.java.hms_backend.dto.CursorPage;
 import net.java.hms_backend.dto.InvoiceDto;
 import net.java.hms_backend.dto.InvoiceFilterRequest;
 import org.springframework.data.domain.Page;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 public interface InvoiceService {
     InvoiceDto createInvoice(InvoiceDto dto);
     InvoiceDto getInvoiceById(Long id);
@@ -11,5 +15,9 @@ public interface InvoiceService {
     InvoiceDto updateInvoice(Long id, InvoiceDto dto);
     void deleteInvoice(Long id);
     Page<InvoiceDto> filterInvoices(InvoiceFilterRequest filter, int page, int size);
-    byte[] generateInvoicePdf(InvoiceDto invoiceDto);
+    CursorPage<InvoiceDto> scrollInvoices(InvoiceFilterRequest filter, Long after, int size, boolean includeTotal);
+    InvoicePdfPipeline.RenderedPdf getInvoicePdf(Long id);
+    InvoicePdfPipeline.RenderedPdf refetchInvoicePdf(InvoicePdfPipeline.RenderedPdf pdf);
+    void prerenderInvoicePdf(Long id);
+    void exportInvoicePdfs(InvoiceFilterRequest filter, OutputStream out) throws IOException;
 }
@@ -0,0 +1,514 @@
+package net.java.hms_backend.service;
+
+import jakarta.annotation.PreDestroy;
+import net.java.hms_backend.exception.DashboardException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process hourly, daily and monthly counters for the dashboard time series.
+ * Every series is a sparse set of fixed-size primitive chunks keyed by epoch
+ * bucket, so a range read costs one array access per bucket. Changes are
+ * applied after their transaction commits, and {@link DailyStatsService#rebuild()}
+ * swaps in a freshly computed set.
+ * <p>
+ * A rebuild reads the source tables from one database snapshot, taken while
+ * no change is between its commit and its application here. Changes that
+ * commit after that point are recorded and replayed onto the replacement when
+ * it is swapped in, so none is lost or counted twice.
+ * <p>
+ * The counters are snapshotted to disk periodically and on shutdown so a
+ * restart does not have to rescan the source tables; a snapshot older than
+ * the configured maximum age is ignored.
+ */
+@Component
+public class MetricRollupStore {
+
+    public static final int MAX_POINTS = 5000;
+
+    private static final int CHUNK_BITS = 8;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int SNAPSHOT_MAGIC = 0x484D5352;
+
+    public enum Metric {
+        BOOKINGS, GUESTS, CHECK_INS, CHECK_OUTS, INVOICES,
+        /** Paid revenue in cents. */
+        REVENUE
+    }
+
+    public enum Granularity {
+        HOUR {
+            @Override
+            public long bucket(LocalDateTime time) {
+                return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 3600);
+            }
+
+            @Override
+            public LocalDateTime start(long bucket) {
+                return LocalDateTime.ofEpochSecond(bucket * 3600, 0, ZoneOffset.UTC);
+            }
+        },
+        DAY {
+            @Override
+            public long bucket(LocalDateTime time) {
+                return time.toLocalDate().toEpochDay();
+            }
+
+            @Override
+            public LocalDateTime start(long bucket) {
+                return LocalDate.ofEpochDay(bucket).atStartOfDay();
+            }
+        },
+        MONTH {
+            @Override
+            public long bucket(LocalDateTime time) {
+                return time.getYear() * 12L + time.getMonthValue() - 1;
+            }
+
+            @Override
+            public LocalDateTime start(long bucket) {
+                return LocalDate.of((int) Math.floorDiv(bucket, 12), (int) Math.floorMod(bucket, 12) + 1, 1)
+                        .atStartOfDay();
+            }
+        };
+
+        public abstract long bucket(LocalDateTime time);
+
+        public abstract LocalDateTime start(long bucket);
+    }
+
+    @FunctionalInterface
+    public interface Sink {
+        void add(Metric metric, LocalDateTime at, long delta);
+    }
+
+    private final Path snapshotFile;
+    private final Duration snapshotMaxAge;
+    private final Duration hourlyRetention;
+    private final ReadWriteLock commitLock = new ReentrantReadWriteLock();
+    private final List<Queue<Batch>> rebuildsInProgress = new CopyOnWriteArrayList<>();
+
+    private volatile Rollups rollups;
+
+    public MetricRollupStore(@Value("${hms.rollups.snapshot-file:}") String snapshotFile,
+                             @Value("${hms.rollups.snapshot-max-age:15m}") Duration snapshotMaxAge,
+                             @Value("${hms.rollups.hourly-retention:90d}") Duration hourlyRetention) {
+        this.snapshotFile = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        this.snapshotMaxAge = snapshotMaxAge;
+        this.hourlyRetention = hourlyRetention;
+        this.rollups = newRollups();
+    }
+
+    public Rollups newRollups() {
+        return new Rollups(Granularity.HOUR.bucket(LocalDateTime.now().minus(hourlyRetention)));
+    }
+
+    public Batch batch() {
+        return new Batch();
+    }
+
+    /**
+     * Applies the batch once the surrounding transaction commits. Unlike
+     * {@link AfterCommit}, the commit itself is bracketed by the shared commit
+     * lock so a rebuild can take its snapshot between two changes.
+     */
+    public void applyAfterCommit(Batch batch) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            commitLock.readLock().lock();
+            try {
+                apply(batch);
+            } finally {
+                commitLock.readLock().unlock();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitLock.readLock().lock();
+                locked = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                apply(batch);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (locked) {
+                    locked = false;
+                    commitLock.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    /**
+     * Starts a rebuild: runs {@code pinSnapshot}, which must fix the database
+     * snapshot the rebuild reads from, while no change is committing, and
+     * records every change applied from then on.
+     */
+    public Rebuild beginRebuild(Runnable pinSnapshot) {
+        Rebuild rebuild = new Rebuild(newRollups());
+        commitLock.writeLock().lock();
+        try {
+            pinSnapshot.run();
+            rebuildsInProgress.add(rebuild.committedSince);
+        } finally {
+            commitLock.writeLock().unlock();
+        }
+        return rebuild;
+    }
+
+    /**
+     * Swaps in the rebuilt counters, with every change committed since the
+     * rebuild began replayed onto them, once the rebuild's transaction commits.
+     */
+    public void replaceAfterCommit(Rebuild rebuild) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            replace(rebuild);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                replace(rebuild);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                rebuildsInProgress.remove(rebuild.committedSince);
+            }
+        });
+    }
+
+    /**
+     * Whether the daily series hold the same values as {@code expected}, e.g.
+     * counters built from the {@code daily_stats} table.
+     */
+    public boolean matchesDaily(Rollups expected) {
+        for (Metric metric : Metric.values()) {
+            if (!rollups.series(metric, Granularity.DAY).sameValues(expected.series(metric, Granularity.DAY))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Values of every bucket from the one containing {@code from} to the one
+     * containing {@code to}, both inclusive.
+     */
+    public long[] range(Metric metric, Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        long first = granularity.bucket(from);
+        long last = granularity.bucket(to);
+        if (last < first) {
+            throw new DashboardException.InvalidDateRangeException("'to' must not be before 'from'");
+        }
+        if (last - first >= MAX_POINTS) {
+            throw new DashboardException.InvalidDateRangeException(
+                    "Time series are limited to " + MAX_POINTS + " points per request");
+        }
+        Series series = rollups.series(metric, granularity);
+        if (first < series.floor) {
+            throw new DashboardException.InvalidDateRangeException(
+                    granularity + " data is only kept since " + granularity.start(series.floor));
+        }
+        return series.read(first, last);
+    }
+
+    public long sum(Metric metric, Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        long total = 0;
+        for (long value : range(metric, granularity, from, to)) {
+            total += value;
+        }
+        return total;
+    }
+
+    @Scheduled(fixedRateString = "${hms.rollups.snapshot-interval-ms:300000}",
+            initialDelayString = "${hms.rollups.snapshot-interval-ms:300000}")
+    public void pruneAndSnapshot() {
+        rollups.series(Granularity.HOUR).forEach(series ->
+                series.prune(Granularity.HOUR.bucket(LocalDateTime.now().minus(hourlyRetention))));
+        writeSnapshot();
+    }
+
+    private void apply(Batch batch) {
+        batch.applyTo(rollups);
+        rebuildsInProgress.forEach(committed -> committed.add(batch));
+    }
+
+    private void replace(Rebuild rebuild) {
+        commitLock.writeLock().lock();
+        try {
+            rebuildsInProgress.remove(rebuild.committedSince);
+            rebuild.committedSince.forEach(batch -> batch.applyTo(rebuild.rollups));
+            rollups = rebuild.rollups;
+        } finally {
+            commitLock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void writeSnapshot() {
+        if (snapshotFile == null) {
+            return;
+        }
+        Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try {
+            if (snapshotFile.getParent() != null) {
+                Files.createDirectories(snapshotFile.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeLong(System.currentTimeMillis());
+                rollups.writeTo(out);
+            }
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write metric snapshot to " + snapshotFile, e);
+        }
+    }
+
+    /**
+     * Loads the last snapshot if there is a recent enough one.
+     *
+     * @return {@code false} when the counters still have to be rebuilt
+     */
+    public boolean restoreSnapshot() {
+        if (snapshotFile == null || !Files.isRegularFile(snapshotFile)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                return false;
+            }
+            long writtenAt = in.readLong();
+            if (System.currentTimeMillis() - writtenAt > snapshotMaxAge.toMillis()) {
+                return false;
+            }
+            Rollups restored = newRollups();
+            restored.readFrom(in);
+            commitLock.writeLock().lock();
+            try {
+                rollups = restored;
+            } finally {
+                commitLock.writeLock().unlock();
+            }
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * A complete set of series, one per metric and granularity.
+     */
+    public static final class Rollups implements Sink {
+        private final Map<Metric, Map<Granularity, Series>> series = new EnumMap<>(Metric.class);
+
+        private Rollups(long hourlyFloor) {
+            for (Metric metric : Metric.values()) {
+                Map<Granularity, Series> byGranularity = new EnumMap<>(Granularity.class);
+                for (Granularity granularity : Granularity.values()) {
+                    byGranularity.put(granularity, new Series(granularity == Granularity.HOUR ? hourlyFloor : Long.MIN_VALUE));
+                }
+                series.put(metric, byGranularity);
+            }
+        }
+
+        @Override
+        public void add(Metric metric, LocalDateTime at, long delta) {
+            if (at == null || delta == 0) {
+                return;
+            }
+            series.get(metric).forEach((granularity, s) -> s.add(granularity.bucket(at), delta));
+        }
+
+        private Series series(Metric metric, Granularity granularity) {
+            return series.get(metric).get(granularity);
+        }
+
+        private List<Series> series(Granularity granularity) {
+            List<Series> result = new ArrayList<>();
+            series.values().forEach(byGranularity -> result.add(byGranularity.get(granularity)));
+            return result;
+        }
+
+        private void writeTo(DataOutputStream out) throws IOException {
+            for (Metric metric : Metric.values()) {
+                for (Granularity granularity : Granularity.values()) {
+                    out.writeUTF(metric.name());
+                    out.writeUTF(granularity.name());
+                    series(metric, granularity).writeTo(out);
+                }
+            }
+        }
+
+        private void readFrom(DataInputStream in) throws IOException {
+            for (int i = 0; i < Metric.values().length * Granularity.values().length; i++) {
+                Metric metric = Metric.valueOf(in.readUTF());
+                Granularity granularity = Granularity.valueOf(in.readUTF());
+                series(metric, granularity).readFrom(in);
+            }
+        }
+    }
+
+    /**
+     * Counters being rebuilt, and the changes committed since the rebuild's
+     * snapshot that still have to be replayed onto them.
+     */
+    public static final class Rebuild {
+        private final Rollups rollups;
+        private final Queue<Batch> committedSince = new ConcurrentLinkedQueue<>();
+
+        private Rebuild(Rollups rollups) {
+            this.rollups = rollups;
+        }
+
+        public Rollups rollups() {
+            return rollups;
+        }
+    }
+
+    /**
+     * Changes collected inside a transaction and applied once it commits.
+     */
+    public static final class Batch implements Sink {
+        private final List<Change> changes = new ArrayList<>();
+
+        private Batch() {
+        }
+
+        @Override
+        public void add(Metric metric, LocalDateTime at, long delta) {
+            if (at == null || delta == 0) {
+                return;
+            }
+            changes.add(new Change(metric, at, delta));
+        }
+
+        private void applyTo(Rollups rollups) {
+            changes.forEach(change -> rollups.add(change.metric(), change.at(), change.delta()));
+        }
+
+        private record Change(Metric metric, LocalDateTime at, long delta) {
+        }
+    }
+
+    private static final class Series {
+        private final ConcurrentSkipListMap<Long, AtomicLongArray> chunks = new ConcurrentSkipListMap<>();
+        private volatile long floor;
+
+        Series(long floor) {
+            this.floor = floor;
+        }
+
+        void add(long bucket, long delta) {
+            if (bucket < floor) {
+                return;
+            }
+            chunks.computeIfAbsent(bucket >> CHUNK_BITS, index -> new AtomicLongArray(CHUNK_SIZE))
+                    .addAndGet((int) (bucket & (CHUNK_SIZE - 1)), delta);
+        }
+
+        long[] read(long first, long last) {
+            long[] values = new long[(int) (last - first + 1)];
+            long bucket = first;
+            while (bucket <= last) {
+                long chunkIndex = bucket >> CHUNK_BITS;
+                long chunkEnd = Math.min(last, ((chunkIndex + 1) << CHUNK_BITS) - 1);
+                AtomicLongArray chunk = chunks.get(chunkIndex);
+                if (chunk != null) {
+                    for (long b = bucket; b <= chunkEnd; b++) {
+                        values[(int) (b - first)] = chunk.get((int) (b & (CHUNK_SIZE - 1)));
+                    }
+                }
+                bucket = chunkEnd + 1;
+            }
+            return values;
+        }
+
+        boolean sameValues(Series other) {
+            Set<Long> indexes = new TreeSet<>(chunks.keySet());
+            indexes.addAll(other.chunks.keySet());
+            for (long index : indexes) {
+                long first = Math.max(index << CHUNK_BITS, Math.max(floor, other.floor));
+                long last = ((index + 1) << CHUNK_BITS) - 1;
+                if (first <= last && !Arrays.equals(read(first, last), other.read(first, last))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void prune(long newFloor) {
+            if (newFloor <= floor) {
+                return;
+            }
+            floor = newFloor;
+            chunks.headMap(newFloor >> CHUNK_BITS).clear();
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            Map<Long, AtomicLongArray> copy = Map.copyOf(chunks);
+            out.writeLong(floor);
+            out.writeInt(copy.size());
+            for (Map.Entry<Long, AtomicLongArray> entry : copy.entrySet()) {
+                out.writeLong(entry.getKey());
+                for (int i = 0; i < CHUNK_SIZE; i++) {
+                    out.writeLong(entry.getValue().get(i));
+                }
+            }
+        }
+
+        void readFrom(DataInputStream in) throws IOException {
+            floor = Math.max(floor, in.readLong());
+            int count = in.readInt();
+            for (int c = 0; c < count; c++) {
+                long chunkIndex = in.readLong();
+                AtomicLongArray chunk = new AtomicLongArray(CHUNK_SIZE);
+                for (int i = 0; i < CHUNK_SIZE; i++) {
+                    chunk.set(i, in.readLong());
+                }
+                if (((chunkIndex + 1) << CHUNK_BITS) > floor) {
+                    chunks.put(chunkIndex, chunk);
+                }
+            }
+        }
+    }
+}
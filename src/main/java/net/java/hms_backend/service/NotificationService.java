@@ -22,4 +22,6 @@ public interface NotificationService {
 
     void notifyReceptionists(String type, String title, String message);
 
+    void notifyReceptionists(String type, String title, List<String> messages);
+
 }
@@ -0,0 +1,258 @@
+package net.java.hms_backend.service;
+
+import net.java.hms_backend.dto.OccupancyAnalyticsDto;
+import net.java.hms_backend.dto.OccupancyMetricsDto;
+import net.java.hms_backend.exception.DashboardException;
+import net.java.hms_backend.repository.BookingRepository;
+import net.java.hms_backend.repository.RoomRepository;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Occupancy, ADR and RevPAR over a date range. Stays are read as compact
+ * (room, start, end, amount) tuples, each room is swept once over the day
+ * boundaries of the range, and rooms are split into partitions that run on
+ * the common fork-join pool. A stay occupies the nights from its check-in
+ * date up to its check-out date (at least one), and its invoice amount is
+ * spread evenly over those nights, with the leftover cents on the first ones.
+ * Revenue is summed in {@code long} minor units, as in {@link PricingEngine},
+ * so the daily and grouped figures add up exactly. Cancelled bookings are
+ * ignored.
+ */
+@Component
+public class OccupancyAnalytics {
+
+    public static final int MAX_RANGE_DAYS = 731;
+    private static final int PARTITION_SIZE = 64;
+    private static final String UNSPECIFIED = "UNSPECIFIED";
+
+    private final RoomRepository roomRepository;
+    private final BookingRepository bookingRepository;
+
+    public OccupancyAnalytics(RoomRepository roomRepository, BookingRepository bookingRepository) {
+        this.roomRepository = roomRepository;
+        this.bookingRepository = bookingRepository;
+    }
+
+    public OccupancyAnalyticsDto compute(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new DashboardException.InvalidDateRangeException("'to' must not be before 'from'");
+        }
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > MAX_RANGE_DAYS) {
+            throw new DashboardException.InvalidDateRangeException(
+                    "Analytics range is limited to " + MAX_RANGE_DAYS + " days");
+        }
+
+        List<RoomRepository.RoomDimensionView> rooms = roomRepository.findAllDimensions();
+        Map<Long, List<Stay>> staysByRoom = new HashMap<>();
+        for (BookingRepository.StayRevenueView view : bookingRepository.findStaysOverlapping(
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+            Stay stay = Stay.of(view, from, days);
+            if (stay != null) {
+                staysByRoom.computeIfAbsent(view.getRoomId(), id -> new ArrayList<>()).add(stay);
+            }
+        }
+
+        Partial result = ForkJoinPool.commonPool()
+                .invoke(new PartitionTask(rooms, staysByRoom, days, 0, rooms.size()));
+
+        List<OccupancyMetricsDto> daily = new ArrayList<>(days);
+        for (int d = 0; d < days; d++) {
+            daily.add(metrics(from.plusDays(d), rooms.size(), result.sold[d], result.revenue[d]));
+        }
+
+        return new OccupancyAnalyticsDto(
+                from,
+                to,
+                days,
+                rooms.size(),
+                result.total.toMetrics(days),
+                daily,
+                toMetrics(result.byRoomType, days),
+                toMetrics(result.byLocation, days)
+        );
+    }
+
+    private static Map<String, OccupancyMetricsDto> toMetrics(Map<String, Group> groups, int days) {
+        Map<String, OccupancyMetricsDto> result = new TreeMap<>();
+        groups.forEach((key, group) -> result.put(key, group.toMetrics(days)));
+        return result;
+    }
+
+    private static OccupancyMetricsDto metrics(LocalDate date, long available, long sold, long revenue) {
+        BigDecimal amount = PricingEngine.toAmount(revenue);
+        return new OccupancyMetricsDto(
+                date,
+                available,
+                sold,
+                amount,
+                available == 0 ? 0 : BigDecimal.valueOf((double) sold / available)
+                        .setScale(4, RoundingMode.HALF_UP).doubleValue(),
+                perUnit(amount, sold),
+                perUnit(amount, available)
+        );
+    }
+
+    private static BigDecimal perUnit(BigDecimal amount, long units) {
+        return units == 0
+                ? BigDecimal.ZERO.setScale(PricingEngine.MINOR_UNIT_SCALE)
+                : amount.divide(BigDecimal.valueOf(units), PricingEngine.MINOR_UNIT_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * A stay clipped to the range, as night indexes relative to {@code from}.
+     * Every night earns {@code ratePerNight} minor units, and the nights before
+     * {@code extraEndNight} one more, so the nights add up to the amount.
+     */
+    private record Stay(int firstNight, int endNight, long ratePerNight, int extraEndNight) {
+
+        static Stay of(BookingRepository.StayRevenueView view, LocalDate from, int days) {
+            LocalDateTime start = view.getStartTime();
+            LocalDateTime end = view.getEndTime();
+            if (view.getRoomId() == null || start == null || end == null) {
+                return null;
+            }
+            LocalDate firstDate = start.toLocalDate();
+            LocalDate endDate = end.toLocalDate();
+            long nights = Math.max(1, ChronoUnit.DAYS.between(firstDate, endDate));
+            long amount = view.getAmount() != null ? PricingEngine.toMinorUnits(view.getAmount()) : 0;
+
+            long first = ChronoUnit.DAYS.between(from, firstDate);
+            int clippedFirst = (int) Math.max(0, first);
+            int clippedEnd = (int) Math.min(days, first + nights);
+            if (clippedFirst >= clippedEnd) {
+                return null;
+            }
+            int extraEnd = Math.clamp(first + amount % nights, clippedFirst, clippedEnd);
+            return new Stay(clippedFirst, clippedEnd, amount / nights, extraEnd);
+        }
+    }
+
+    private static final class Group {
+        private long rooms;
+        private long sold;
+        private long revenue;
+
+        void add(long rooms, long sold, long revenue) {
+            this.rooms += rooms;
+            this.sold += sold;
+            this.revenue += revenue;
+        }
+
+        void merge(Group other) {
+            add(other.rooms, other.sold, other.revenue);
+        }
+
+        OccupancyMetricsDto toMetrics(int days) {
+            return metrics(null, rooms * days, sold, revenue);
+        }
+    }
+
+    private static final class Partial {
+        private final long[] sold;
+        private final long[] revenue;
+        private final Group total = new Group();
+        private final Map<String, Group> byRoomType = new HashMap<>();
+        private final Map<String, Group> byLocation = new HashMap<>();
+
+        Partial(int days) {
+            this.sold = new long[days];
+            this.revenue = new long[days];
+        }
+
+        Partial merge(Partial other) {
+            for (int d = 0; d < sold.length; d++) {
+                sold[d] += other.sold[d];
+                revenue[d] += other.revenue[d];
+            }
+            total.merge(other.total);
+            other.byRoomType.forEach((key, group) -> byRoomType.computeIfAbsent(key, k -> new Group()).merge(group));
+            other.byLocation.forEach((key, group) -> byLocation.computeIfAbsent(key, k -> new Group()).merge(group));
+            return this;
+        }
+    }
+
+    private static final class PartitionTask extends RecursiveTask<Partial> {
+        private final List<RoomRepository.RoomDimensionView> rooms;
+        private final Map<Long, List<Stay>> staysByRoom;
+        private final int days;
+        private final int from;
+        private final int to;
+
+        PartitionTask(List<RoomRepository.RoomDimensionView> rooms, Map<Long, List<Stay>> staysByRoom,
+                      int days, int from, int to) {
+            this.rooms = rooms;
+            this.staysByRoom = staysByRoom;
+            this.days = days;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from > PARTITION_SIZE) {
+                int middle = (from + to) >>> 1;
+                PartitionTask left = new PartitionTask(rooms, staysByRoom, days, from, middle);
+                PartitionTask right = new PartitionTask(rooms, staysByRoom, days, middle, to);
+                left.fork();
+                Partial rightResult = right.compute();
+                return left.join().merge(rightResult);
+            }
+
+            Partial partial = new Partial(days);
+            int[] occupancyDelta = new int[days + 1];
+            long[] rateDelta = new long[days + 1];
+            for (int i = from; i < to; i++) {
+                RoomRepository.RoomDimensionView room = rooms.get(i);
+                Arrays.fill(occupancyDelta, 0);
+                Arrays.fill(rateDelta, 0);
+                for (Stay stay : staysByRoom.getOrDefault(room.getId(), List.of())) {
+                    occupancyDelta[stay.firstNight()]++;
+                    occupancyDelta[stay.endNight()]--;
+                    rateDelta[stay.firstNight()] += stay.ratePerNight();
+                    rateDelta[stay.endNight()] -= stay.ratePerNight();
+                    rateDelta[stay.firstNight()]++;
+                    rateDelta[stay.extraEndNight()]--;
+                }
+
+                long roomSold = 0;
+                long roomRevenue = 0;
+                int occupancy = 0;
+                long rate = 0;
+                for (int d = 0; d < days; d++) {
+                    occupancy += occupancyDelta[d];
+                    rate += rateDelta[d];
+                    if (occupancy > 0) {
+                        partial.sold[d]++;
+                        roomSold++;
+                    }
+                    partial.revenue[d] += rate;
+                    roomRevenue += rate;
+                }
+
+                partial.total.add(1, roomSold, roomRevenue);
+                partial.byRoomType.computeIfAbsent(key(room.getRoomType()), k -> new Group()).add(1, roomSold, roomRevenue);
+                partial.byLocation.computeIfAbsent(key(room.getLocation()), k -> new Group()).add(1, roomSold, roomRevenue);
+            }
+            return partial;
+        }
+
+        private static String key(String value) {
+            return value == null || value.isBlank() ? UNSPECIFIED : value;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package net.java.hms_backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs an operation that lost an optimistic-lock race. Only wrap operations
+ * that reload their entity and re-apply the change on each attempt, and call it
+ * outside the operation's transaction so every attempt starts fresh.
+ */
+@Component
+public class OptimisticLockRetry {
+
+    private final int maxAttempts;
+    private final Duration backoff;
+
+    public OptimisticLockRetry(@Value("${hms.optimistic-lock.max-attempts:3}") int maxAttempts,
+                               @Value("${hms.optimistic-lock.backoff:50ms}") Duration backoff) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoff = backoff;
+    }
+
+    public <T> T execute(Supplier<T> operation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return operation.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                sleepBeforeRetry(attempt);
+            }
+        }
+    }
+
+    private void sleepBeforeRetry(int attempt) {
+        long base = backoff.toMillis() * attempt;
+        if (base <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(base + ThreadLocalRandom.current().nextLong(base));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package net.java.hms_backend.service;
+
+import net.java.hms_backend.entity.PriceType;
+import net.java.hms_backend.entity.Promotion;
+import net.java.hms_backend.exception.ResourceNotFoundException;
+import net.java.hms_backend.repository.PromotionRepository;
+import net.java.hms_backend.repository.RoomRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single place where room prices and promotions are turned into amounts. Base
+ * rates are kept in memory per room and promotions as one list, so quoting a
+ * booking or listing rooms reads neither {@code RoomPrice} entities nor the
+ * promotion table. Room rates are dropped after a committed price change and
+ * the promotion list after a committed promotion change; everything is also
+ * reloaded once the refresh interval has passed, for writes that bypass the
+ * services.
+ * <p>
+ * All arithmetic is done on {@code long} minor units (cents) and discounts in
+ * basis points. Amounts are billed in whole currency units, rounded half up.
+ */
+@Component
+public class PricingEngine {
+
+    public static final int MINOR_UNIT_SCALE = 2;
+    private static final long MINOR_PER_UNIT = 100;
+    private static final long FULL_BASIS_POINTS = 10_000;
+
+    private final RoomRepository roomRepository;
+    private final PromotionRepository promotionRepository;
+    private final long refreshNanos;
+    private final Map<Long, List<Rate>> rates = new ConcurrentHashMap<>();
+    private final AtomicLong rateGeneration = new AtomicLong();
+    private final AtomicLong promotionGeneration = new AtomicLong();
+
+    private volatile List<PromotionWindow> promotions;
+    private volatile long loadedAtNanos = System.nanoTime();
+
+    public PricingEngine(RoomRepository roomRepository,
+                         PromotionRepository promotionRepository,
+                         @Value("${hms.pricing.refresh-interval:10m}") Duration refreshInterval) {
+        this.roomRepository = roomRepository;
+        this.promotionRepository = promotionRepository;
+        this.refreshNanos = refreshInterval.toNanos();
+    }
+
+    /**
+     * Prices a stay at the room's rate for {@code bookingType}, with the best
+     * promotion overlapping the stay. Hourly stays are billed per started hour,
+     * other stays per started day, and an empty stay as one hour or one day.
+     */
+    public Quote quote(Long roomId, String bookingType, LocalDateTime start, LocalDateTime end) {
+        PriceType priceType = PriceType.valueOf(bookingType);
+        Rate rate = ratesFor(List.of(roomId)).getOrDefault(roomId, List.of()).stream()
+                .filter(r -> r.priceType() == priceType)
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("RoomPrice", "priceType", priceType));
+
+        long minutes = Duration.between(start, end).toMinutes();
+        if (minutes <= 0) {
+            minutes = 60;
+        }
+        long units = priceType == PriceType.HOURLY
+                ? Math.ceilDiv(minutes, 60)
+                : Math.max(1, Math.ceilDiv(minutes, 1440));
+
+        int discount = discountFor(start.toLocalDate(), end.toLocalDate());
+        long undiscounted = Math.multiplyExact(rate.unitPrice(), units);
+        long total = wholeUnits(Math.multiplyExact(undiscounted, FULL_BASIS_POINTS - discount), FULL_BASIS_POINTS);
+        return new Quote(priceType, units, rate.unitPrice(), discount, total);
+    }
+
+    /**
+     * Per-room rates for display, discounted by the best promotion overlapping
+     * {@code from}..{@code to} (none when either is null) and rounded to whole
+     * currency units. Rooms without rates map to an empty list.
+     */
+    public Map<Long, List<Rate>> displayRates(Collection<Long> roomIds, LocalDate from, LocalDate to) {
+        int discount = from != null && to != null ? discountFor(from, to) : 0;
+        Map<Long, List<Rate>> result = new HashMap<>();
+        ratesFor(roomIds).forEach((roomId, roomRates) -> result.put(roomId, roomRates.stream()
+                .map(r -> new Rate(r.priceType(),
+                        wholeUnits(Math.multiplyExact(r.unitPrice(), FULL_BASIS_POINTS - discount), FULL_BASIS_POINTS)))
+                .toList()));
+        return result;
+    }
+
+    /**
+     * Loads the rates of all listed rooms that are not in memory yet with a
+     * single query, so quoting them one by one afterwards stays in memory.
+     */
+    public void preload(Collection<Long> roomIds) {
+        ratesFor(roomIds);
+    }
+
+    public void invalidateRoomAfterCommit(Long roomId) {
+        AfterCommit.run(() -> {
+            rateGeneration.incrementAndGet();
+            rates.remove(roomId);
+        });
+    }
+
+    public void invalidatePromotionsAfterCommit() {
+        AfterCommit.run(() -> {
+            promotionGeneration.incrementAndGet();
+            promotions = null;
+        });
+    }
+
+    public static BigDecimal toAmount(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, MINOR_UNIT_SCALE);
+    }
+
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.movePointRight(MINOR_UNIT_SCALE).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private Map<Long, List<Rate>> ratesFor(Collection<Long> roomIds) {
+        expireIfDue();
+        Map<Long, List<Rate>> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long roomId : roomIds) {
+            List<Rate> cached = rates.get(roomId);
+            if (cached != null) {
+                result.put(roomId, cached);
+            } else {
+                missing.add(roomId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long generation = rateGeneration.get();
+        Map<Long, List<Rate>> loaded = new HashMap<>();
+        missing.forEach(roomId -> loaded.put(roomId, new ArrayList<>()));
+        for (RoomRepository.RoomRateView view : roomRepository.findRatesByRoomIdIn(missing)) {
+            loaded.get(view.getRoomId()).add(new Rate(view.getPriceType(), toMinor(view.getBasePrice())));
+        }
+        loaded.forEach((roomId, roomRates) -> {
+            List<Rate> immutable = List.copyOf(roomRates);
+            result.put(roomId, immutable);
+            if (rateGeneration.get() == generation) {
+                rates.putIfAbsent(roomId, immutable);
+            }
+        });
+        return result;
+    }
+
+    private int discountFor(LocalDate from, LocalDate to) {
+        expireIfDue();
+        List<PromotionWindow> windows = promotions;
+        if (windows == null) {
+            long generation = promotionGeneration.get();
+            windows = promotionRepository.findAll().stream()
+                    .filter(p -> p.getStartDate() != null && p.getEndDate() != null && p.getDiscountPercent() != null)
+                    .map(PromotionWindow::of)
+                    .toList();
+            if (promotionGeneration.get() == generation) {
+                promotions = windows;
+            }
+        }
+
+        int best = 0;
+        for (PromotionWindow window : windows) {
+            if (!window.end().isBefore(from) && !window.start().isAfter(to)) {
+                best = Math.max(best, window.basisPoints());
+            }
+        }
+        return best;
+    }
+
+    private void expireIfDue() {
+        long now = System.nanoTime();
+        if (now - loadedAtNanos > refreshNanos) {
+            loadedAtNanos = now;
+            rateGeneration.incrementAndGet();
+            promotionGeneration.incrementAndGet();
+            rates.clear();
+            promotions = null;
+        }
+    }
+
+    private static long toMinor(Double price) {
+        return BigDecimal.valueOf(price).movePointRight(MINOR_UNIT_SCALE)
+                .setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * {@code numerator / denominator} in minor units, rounded half up to a
+     * whole currency unit. Both arguments are non-negative.
+     */
+    private static long wholeUnits(long numerator, long denominator) {
+        long divisor = Math.multiplyExact(denominator, MINOR_PER_UNIT);
+        return (numerator + divisor / 2) / divisor * MINOR_PER_UNIT;
+    }
+
+    public record Rate(PriceType priceType, long unitPrice) {
+    }
+
+    /**
+     * A priced stay. {@code unitPrice} is the undiscounted rate per hour or day
+     * and {@code total} the amount to bill, both in minor units.
+     */
+    public record Quote(PriceType priceType, long units, long unitPrice, int discountBasisPoints, long total) {
+
+        public BigDecimal amount() {
+            return toAmount(total).setScale(0, RoundingMode.UNNECESSARY);
+        }
+    }
+
+    private record PromotionWindow(LocalDate start, LocalDate end, int basisPoints) {
+
+        static PromotionWindow of(Promotion promotion) {
+            int basisPoints = BigDecimal.valueOf(promotion.getDiscountPercent()).movePointRight(2)
+                    .setScale(0, RoundingMode.HALF_UP).intValue();
+            return new PromotionWindow(promotion.getStartDate(), promotion.getEndDate(),
+                    (int) Math.min(FULL_BASIS_POINTS, Math.max(0, basisPoints)));
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package net.java.hms_backend.service;
 
+import net.java.hms_backend.dto.CursorPage;
+import net.java.hms_backend.dto.RoomAvailabilityGridDto;
 import net.java.hms_backend.dto.RoomDto;
 import net.java.hms_backend.dto.RoomFilterRequest;
 import org.springframework.data.domain.Page;
 
+import java.time.LocalDate;
+
 public interface RoomService {
     RoomDto createRoom(RoomDto roomDto);
 
@@ -17,5 +21,9 @@ public interface RoomService {
 
     Page<RoomDto> filterRooms(RoomFilterRequest request, int page, int size);
 
+    CursorPage<RoomDto> scrollRooms(RoomFilterRequest request, Integer afterRoomNumber, int size, boolean includeTotal);
+
+    RoomAvailabilityGridDto getAvailabilityGrid(LocalDate from, LocalDate to);
+
 
 }
@@ -1,6 +1,7 @@
 package net.java.hms_backend.service.impl;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.criteria.CriteriaBuilder;
@@ -9,101 +10,98 @@ import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.AllArgsConstructor;
 import net.java.hms_backend.dto.BookingDto;
+import net.java.hms_backend.dto.BookingExportFormat;
 import net.java.hms_backend.dto.BookingFilterRequest;
+import net.java.hms_backend.dto.CursorPage;
 import net.java.hms_backend.entity.Booking;
 import net.java.hms_backend.entity.PriceType;
 import net.java.hms_backend.entity.Room;
 import net.java.hms_backend.entity.User;
 import net.java.hms_backend.exception.BookingException;
 import net.java.hms_backend.exception.ResourceNotFoundException;
+import net.java.hms_backend.exception.VersionConflictException;
 import net.java.hms_backend.mapper.BookingMapper;
+import net.java.hms_backend.repository.BookingFilterPredicates;
 import net.java.hms_backend.repository.BookingRepository;
 import net.java.hms_backend.repository.InvoiceRepository;
 import net.java.hms_backend.repository.RoomRepository;
 import net.java.hms_backend.repository.UserRepository;
 import net.java.hms_backend.service.AuditLogService;
+import net.java.hms_backend.service.BookingIntervalIndex;
 import net.java.hms_backend.service.BookingService;
+import net.java.hms_backend.service.DailyStatsService;
+import net.java.hms_backend.service.DashboardEventStream;
+import net.java.hms_backend.service.GuestNameIndex;
 import net.java.hms_backend.service.NotificationService;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
+    private static final String NO_OVERLAP_CONSTRAINT = "booking_no_overlap";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final int MAX_GROUP_SIZE = 100;
+    private static final int MAX_SEARCH_RESULTS = 50;
+    private static final String[] CSV_HEADER = {
+            "id", "guestFullName", "guestIdNumber", "guestNationality", "roomNumber",
+            "checkInDate", "checkOutDate", "actualCheckInTime", "actualCheckOutTime", "bookingType",
+            "status", "numberOfGuests", "notes", "cancelReason", "createdBy", "createdAt"
+    };
+
     private final BookingRepository bookingRepository;
     private final RoomRepository roomRepository;
     private final AuditLogService auditLogService;
     private final InvoiceRepository invoiceRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final GuestNameIndex guestNameIndex;
+    private final DailyStatsService dailyStatsService;
+    private final DashboardEventStream dashboardEventStream;
+    private final ObjectMapper objectMapper;
 
     @PersistenceContext
     private EntityManager entityManager;
 
     @Override
+    @Transactional
     public BookingDto createBooking(BookingDto dto) {
-        if (dto.getGuestFullName() == null || dto.getGuestFullName().isBlank()) {
-            throw new BookingException.MissingGuestNameException();
-        }
-
-        if (dto.getGuestIdNumber() == null || dto.getGuestIdNumber().isBlank()) {
-            throw new BookingException.MissingIdNumberException();
-        }
-
-        if (dto.getRoomNumber() == null) {
-            throw new BookingException.MissingRoomNumberException();
-        }
-
-        if (dto.getCheckInDate() == null) {
-            throw new BookingException.MissingCheckInDateException();
-        }
-
-        if (dto.getCheckOutDate() == null) {
-            throw new BookingException.MissingCheckOutDateException();
-        }
-
-        if (dto.getBookingType() == null || dto.getBookingType().isBlank()) {
-            throw new BookingException.MissingBookingTypeException();
-        }
-        try {
-            PriceType.valueOf(dto.getBookingType().toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new BookingException.InvalidBookingTypeException("Invalid bookingType: " + dto.getBookingType());
-        }
-
-
-        if (dto.getStatus() == null || dto.getStatus().isBlank()) {
-            throw new BookingException.MissingStatusException();
-        }
-
-        if (dto.getNumberOfGuests() == null) {
-            throw new BookingException.MissingNumberOfGuestsException();
-        }
+        validateNewBooking(dto);
 
         Room room = roomRepository.findByRoomNumber(dto.getRoomNumber())
                 .orElseThrow(() -> new ResourceNotFoundException("Room", "roomNumber", dto.getRoomNumber()));
 
-        List<Booking> overlappingBookings = bookingRepository.findOverlappingBookings(
-                room.getId(),
-                dto.getCheckInDate(),
-                dto.getCheckOutDate()
-        );
-
         if (dto.getNumberOfGuests() > room.getMaxOccupancy()) {
             throw new BookingException.ExceedsRoomCapacityException(
                     "Number of guests (" + dto.getNumberOfGuests() + ") exceeds room capacity (" + room.getMaxOccupancy() + ")"
             );
         }
 
-        if (!overlappingBookings.isEmpty()) {
+        if (bookingIntervalIndex.hasOverlap(room.getId(), dto.getCheckInDate(), dto.getCheckOutDate(), null)) {
             throw new BookingException.BookingConflictException("Room is already booked during the requested period.");
         }
 
@@ -112,7 +110,9 @@ public class BookingServiceImpl implements BookingService {
         }
 
         Booking booking = BookingMapper.toEntity(dto, room);
-        Booking saved = bookingRepository.save(booking);
+        Booking saved = saveEnforcingNoOverlap(booking);
+        dailyStatsService.recordBookingChange(null, DailyStatsService.BookingFacts.of(saved));
+        dashboardEventStream.bookingCreated(saved);
 
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
 
@@ -138,7 +138,134 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.toDto(saved);
     }
 
+    @Override
+    @Transactional
+    public List<BookingDto> createGroupBooking(List<BookingDto> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new BookingException.InvalidGroupBookingException("Group booking must contain at least one booking");
+        }
+        if (dtos.size() > MAX_GROUP_SIZE) {
+            throw new BookingException.InvalidGroupBookingException(
+                    "Group booking is limited to " + MAX_GROUP_SIZE + " bookings");
+        }
+
+        for (BookingDto dto : dtos) {
+            validateNewBooking(dto);
+            if (dto.getCheckOutDate().isBefore(dto.getCheckInDate())) {
+                throw new BookingException.InvalidDateRangeException();
+            }
+        }
+
+        Set<Integer> roomNumbers = dtos.stream().map(BookingDto::getRoomNumber).collect(Collectors.toSet());
+        Map<Integer, Room> roomsByNumber = roomRepository.findByRoomNumberIn(roomNumbers).stream()
+                .collect(Collectors.toMap(Room::getRoomNumber, Function.identity()));
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>(dtos.size());
+
+        for (BookingDto dto : dtos) {
+            Room room = roomsByNumber.get(dto.getRoomNumber());
+            if (room == null) {
+                throw new ResourceNotFoundException("Room", "roomNumber", dto.getRoomNumber());
+            }
+
+            if (dto.getNumberOfGuests() > room.getMaxOccupancy()) {
+                throw new BookingException.ExceedsRoomCapacityException(
+                        "Number of guests (" + dto.getNumberOfGuests() + ") exceeds room capacity (" + room.getMaxOccupancy() + ")"
+                );
+            }
+
+            boolean conflictsWithinGroup = bookings.stream()
+                    .anyMatch(other -> other.getRoom().getId().equals(room.getId())
+                            && !other.getCheckInDate().isAfter(dto.getCheckOutDate())
+                            && !other.getCheckOutDate().isBefore(dto.getCheckInDate()));
+
+            if (conflictsWithinGroup
+                    || bookingIntervalIndex.hasOverlap(room.getId(), dto.getCheckInDate(), dto.getCheckOutDate(), null)) {
+                throw new BookingException.BookingConflictException(
+                        "Room " + room.getRoomNumber() + " is already booked during the requested period.");
+            }
+
+            Booking booking = BookingMapper.toEntity(dto, room);
+            booking.setCreatedBy(username);
+            booking.setUpdatedBy(username);
+            booking.setCreatedAt(now);
+            booking.setUpdatedAt(now);
+            bookings.add(booking);
+        }
+
+        try {
+            bookingRepository.insertAllInBatch(bookings);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new BookingException.BookingConflictException("Room is already booked during the requested period.");
+            }
+            throw e;
+        }
+        bookings.forEach(booking -> {
+            bookingIntervalIndex.putAfterCommit(BookingIntervalIndex.Interval.of(booking));
+            guestNameIndex.putAfterCommit(booking.getId(), booking.getGuestFullName());
+        });
+        dailyStatsService.recordBookingsCreated(bookings);
+        bookings.forEach(dashboardEventStream::bookingCreated);
+
+        String details = "Created group booking of " + bookings.size() + " rooms: " +
+                bookings.stream()
+                        .map(b -> "#" + b.getId() + " room " + b.getRoom().getRoomNumber() +
+                                " (" + b.getGuestFullName() + ", " + b.getCheckInDate() + " → " + b.getCheckOutDate() + ")")
+                        .collect(Collectors.joining("; "));
+
+        auditLogService.log(
+                username,
+                "CREATE",
+                "Booking",
+                null,
+                details
+        );
+
+        return bookings.stream().map(BookingMapper::toDto).toList();
+    }
+
+    private void validateNewBooking(BookingDto dto) {
+        if (dto.getGuestFullName() == null || dto.getGuestFullName().isBlank()) {
+            throw new BookingException.MissingGuestNameException();
+        }
+
+        if (dto.getGuestIdNumber() == null || dto.getGuestIdNumber().isBlank()) {
+            throw new BookingException.MissingIdNumberException();
+        }
+
+        if (dto.getRoomNumber() == null) {
+            throw new BookingException.MissingRoomNumberException();
+        }
+
+        if (dto.getCheckInDate() == null) {
+            throw new BookingException.MissingCheckInDateException();
+        }
+
+        if (dto.getCheckOutDate() == null) {
+            throw new BookingException.MissingCheckOutDateException();
+        }
+
+        if (dto.getBookingType() == null || dto.getBookingType().isBlank()) {
+            throw new BookingException.MissingBookingTypeException();
+        }
+        try {
+            PriceType.valueOf(dto.getBookingType().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BookingException.InvalidBookingTypeException("Invalid bookingType: " + dto.getBookingType());
+        }
+
+
+        if (dto.getStatus() == null || dto.getStatus().isBlank()) {
+            throw new BookingException.MissingStatusException();
+        }
 
+        if (dto.getNumberOfGuests() == null) {
+            throw new BookingException.MissingNumberOfGuestsException();
+        }
+    }
 
     @Override
     public BookingDto getBookingById(Long id) {
@@ -162,6 +289,32 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.toDto(booking);
     }
 
+    @Override
+    public List<BookingDto> searchByGuestName(String name, int limit) {
+        if (name == null || name.isBlank()) {
+            throw new BookingException.MissingGuestNameException();
+        }
+
+        List<Long> rankedIds = guestNameIndex.search(name.trim(), Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS));
+        Map<Long, Booking> bookingsById = bookingRepository.findAllById(rankedIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<BookingDto> results = rankedIds.stream()
+                .map(bookingsById::get)
+                .filter(Objects::nonNull)
+                .map(BookingMapper::toDto)
+                .toList();
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        auditLogService.log(
+                username,
+                "SEARCH",
+                "Booking",
+                null,
+                "Searched bookings by guest name: '" + name + "', results: " + results.size()
+        );
+        return results;
+    }
+
     @Override
     public Page<BookingDto> getAllBookings(int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
@@ -183,10 +336,16 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional
     public BookingDto updateBooking(Long id, BookingDto dto) {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id));
 
+        if (dto.getVersion() != null && !dto.getVersion().equals(booking.getVersion())) {
+            throw new VersionConflictException("Booking", id, dto.getVersion(), booking.getVersion());
+        }
+        DailyStatsService.BookingFacts before = DailyStatsService.BookingFacts.of(booking);
+
         StringBuilder changes = new StringBuilder("Updated booking ID: " + id + ". Changes: ");
 
         if (dto.getRoomNumber() != null && !dto.getRoomNumber().equals(booking.getRoom().getRoomNumber())) {
@@ -202,16 +361,7 @@ public class BookingServiceImpl implements BookingService {
                 throw new BookingException.InvalidDateRangeException();
             }
 
-            Long roomId = booking.getRoom().getId();
-            List<Booking> overlappingBookings = bookingRepository.findOverlappingBookings(
-                            roomId,
-                            dto.getCheckInDate(),
-                            dto.getCheckOutDate()
-                    ).stream()
-                    .filter(b -> !b.getId().equals(id))
-                    .toList();
-
-            if (!overlappingBookings.isEmpty()) {
+            if (bookingIntervalIndex.hasOverlap(booking.getRoom().getId(), dto.getCheckInDate(), dto.getCheckOutDate(), id)) {
                 throw new BookingException.BookingConflictException("Room is already booked during the requested period.");
             }
 
@@ -301,7 +451,9 @@ public class BookingServiceImpl implements BookingService {
             booking.setCancelReason(dto.getCancelReason());
         }
 
-        Booking updatedBooking = bookingRepository.save(booking);
+        Booking updatedBooking = saveEnforcingNoOverlap(booking);
+        dailyStatsService.recordBookingChange(before, DailyStatsService.BookingFacts.of(updatedBooking));
+        dashboardEventStream.bookingUpdated(before, updatedBooking);
 
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
 
@@ -317,6 +469,7 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional
     public void deleteBooking(Long id) {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id));
@@ -353,6 +506,7 @@ public class BookingServiceImpl implements BookingService {
         );
 
         bookingRepository.delete(booking);
+        dailyStatsService.recordBookingChange(DailyStatsService.BookingFacts.of(booking), null);
     }
 
     @Override
@@ -363,7 +517,7 @@ public class BookingServiceImpl implements BookingService {
         Root<Booking> booking = query.from(Booking.class);
         query.select(booking).distinct(true);
 
-        List<Predicate> predicates = buildPredicates(cb, booking, filter);
+        List<Predicate> predicates = BookingFilterPredicates.of(cb, booking, filter);
         query.where(cb.and(predicates.toArray(new Predicate[0])));
         query.orderBy(cb.desc(booking.get("id")));
 
@@ -376,7 +530,7 @@ public class BookingServiceImpl implements BookingService {
 
         CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
         Root<Booking> countRoot = countQuery.from(Booking.class);
-        List<Predicate> countPredicates = buildPredicates(cb, countRoot, filter);
+        List<Predicate> countPredicates = BookingFilterPredicates.of(cb, countRoot, filter);
 
         countQuery.select(cb.countDistinct(countRoot));
         countQuery.where(cb.and(countPredicates.toArray(new Predicate[0])));
@@ -410,53 +564,145 @@ public class BookingServiceImpl implements BookingService {
         return bookingsPage.map(BookingMapper::toDto);
     }
 
-    private List<Predicate> buildPredicates(CriteriaBuilder cb, Root<Booking> root, BookingFilterRequest filter) {
-        List<Predicate> predicates = new ArrayList<>();
-
-        if (filter.getGuestFullName() != null && !filter.getGuestFullName().isBlank()) {
-            predicates.add(cb.like(
-                    cb.lower(root.get("guestFullName")),
-                    "%" + filter.getGuestFullName().toLowerCase() + "%"
-            ));
+    private Booking saveEnforcingNoOverlap(Booking booking) {
+        try {
+            return bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new BookingException.BookingConflictException("Room is already booked during the requested period.");
+            }
+            throw e;
         }
+    }
 
-        if (filter.getGuestIdNumber() != null && !filter.getGuestIdNumber().isBlank()) {
-            predicates.add(cb.equal(root.get("guestIdNumber"), filter.getGuestIdNumber()));
+    private boolean isOverlapViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+            if (cause.getMessage() != null && cause.getMessage().contains(NO_OVERLAP_CONSTRAINT)) {
+                return true;
+            }
         }
+        return false;
+    }
 
-        if (filter.getGuestNationality() != null && !filter.getGuestNationality().isBlank()) {
-            predicates.add(cb.equal(root.get("guestNationality"), filter.getGuestNationality()));
-        }
+    @Override
+    @Transactional
+    public long exportBookings(BookingFilterRequest filter, BookingExportFormat format, OutputStream out) throws IOException {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
 
-        if (filter.getStatus() != null && !filter.getStatus().isBlank()) {
-            predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+        if (format == BookingExportFormat.CSV) {
+            writer.write(String.join(",", CSV_HEADER));
+            writer.write("\n");
         }
 
-        if (filter.getBookingType() != null && !filter.getBookingType().isBlank()) {
-            predicates.add(cb.equal(root.get("bookingType"), filter.getBookingType()));
-        }
+        long exported;
+        try {
+            exported = bookingRepository.streamFiltered(filter, dto -> {
+                try {
+                    if (format == BookingExportFormat.CSV) {
+                        writeCsvRow(writer, dto);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(dto));
+                        writer.write("\n");
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
 
-        if (filter.getCheckInDateFrom() != null) {
-            predicates.add(cb.greaterThanOrEqualTo(root.get("checkInDate"), filter.getCheckInDateFrom()));
-        }
+        auditLogService.log(
+                username,
+                "EXPORT",
+                "Booking",
+                null,
+                "Exported " + exported + " bookings as " + format.getExtension()
+        );
+        return exported;
+    }
 
-        if (filter.getCheckInDateTo() != null) {
-            predicates.add(cb.lessThanOrEqualTo(root.get("checkInDate"), filter.getCheckInDateTo()));
+    private static void writeCsvRow(Writer writer, BookingDto dto) throws IOException {
+        Object[] values = {
+                dto.getId(), dto.getGuestFullName(), dto.getGuestIdNumber(), dto.getGuestNationality(),
+                dto.getRoomNumber(), dto.getCheckInDate(), dto.getCheckOutDate(),
+                dto.getActualCheckInTime(), dto.getActualCheckOutTime(), dto.getBookingType(),
+                dto.getStatus(), dto.getNumberOfGuests(), dto.getNotes(), dto.getCancelReason(),
+                dto.getCreatedBy(), dto.getCreatedAt()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
         }
+        writer.write("\n");
+    }
 
-        if (filter.getCheckOutDateFrom() != null) {
-            predicates.add(cb.greaterThanOrEqualTo(root.get("checkOutDate"), filter.getCheckOutDateFrom()));
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
         }
+        return text;
+    }
 
-        if (filter.getCheckOutDateTo() != null) {
-            predicates.add(cb.lessThanOrEqualTo(root.get("checkOutDate"), filter.getCheckOutDateTo()));
+    @Override
+    public CursorPage<BookingDto> scrollBookings(BookingFilterRequest filter, Long after, int size, boolean includeTotal) {
+        size = CursorPage.pageSize(size);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        query.select(booking);
+
+        List<Predicate> predicates = BookingFilterPredicates.of(cb, booking, filter);
+        if (after != null) {
+            predicates.add(cb.lessThan(booking.get("id"), after));
         }
+        query.where(cb.and(predicates.toArray(new Predicate[0])));
+        query.orderBy(cb.desc(booking.get("id")));
+
+        List<Booking> result = entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
 
-        if (filter.getRoomId() != null) {
-            predicates.add(cb.equal(root.get("room").get("roomNumber"), filter.getRoomId()));
+        boolean hasNext = result.size() > size;
+        List<Booking> content = hasNext ? result.subList(0, size) : result;
+        Long nextCursor = hasNext ? content.get(content.size() - 1).getId() : null;
+
+        Long total = null;
+        if (includeTotal) {
+            CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+            Root<Booking> countRoot = countQuery.from(Booking.class);
+            countQuery.select(cb.count(countRoot));
+            countQuery.where(cb.and(BookingFilterPredicates.of(cb, countRoot, filter).toArray(new Predicate[0])));
+            total = entityManager.createQuery(countQuery).getSingleResult();
         }
 
-        return predicates;
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        String details = "Scrolled bookings - after: " + after +
+                ", size: " + size +
+                ", returned: " + content.size() +
+                (total != null ? ", total results: " + total : "");
+
+        auditLogService.log(
+                username,
+                "SEARCH",
+                "Booking",
+                null,
+                details
+        );
+        return new CursorPage<>(content.stream().map(BookingMapper::toDto).toList(), size, nextCursor, total);
     }
 
     @Scheduled(fixedRate = 3600000)
@@ -469,25 +715,25 @@ public class BookingServiceImpl implements BookingService {
 
         if (upcomingBookings.isEmpty()) return;
 
+        List<String> messages = new ArrayList<>();
         for (Booking booking : upcomingBookings) {
             Room room = booking.getRoom();
             if (room == null) {
                 continue;
             }
 
-            String title = "Upcoming Room Checkout";
-            String message = String.format(
+            messages.add(String.format(
                     "Room %s is scheduled to check out at %s",
                     room.getRoomNumber(),
                     booking.getCheckOutDate().format(DateTimeFormatter.ofPattern("HH:mm dd/MM/yyyy"))
-            );
-
-            notificationService.notifyReceptionists(
-                    "ROOM_CHECKOUT_REMINDER",
-                    title,
-                    message
-            );
+            ));
         }
+
+        notificationService.notifyReceptionists(
+                "ROOM_CHECKOUT_REMINDER",
+                "Upcoming Room Checkout",
+                messages
+        );
     }
 
 }
@@ -1,131 +1,94 @@
 package net.java.hms_backend.service.impl;
 
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import net.java.hms_backend.dto.DashboardDto;
-import net.java.hms_backend.entity.Booking;
-import net.java.hms_backend.entity.Invoice;
+import net.java.hms_backend.dto.DashboardQueryTimingDto;
+import net.java.hms_backend.dto.OccupancyAnalyticsDto;
+import net.java.hms_backend.dto.TimeSeriesDto;
+import net.java.hms_backend.entity.DailyStats;
 import net.java.hms_backend.repository.BookingRepository;
-import net.java.hms_backend.repository.InvoiceRepository;
+import net.java.hms_backend.repository.DailyStatsRepository;
 import net.java.hms_backend.service.AuditLogService;
+import net.java.hms_backend.service.DailyStatsChangedEvent;
+import net.java.hms_backend.service.DashboardPartials;
+import net.java.hms_backend.service.DashboardQueryRunner;
 import net.java.hms_backend.service.DashboardService;
+import net.java.hms_backend.service.DashboardSummaryCache;
+import net.java.hms_backend.service.DegradationGuard;
+import net.java.hms_backend.service.MetricRollupStore;
+import net.java.hms_backend.service.OccupancyAnalytics;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.temporal.TemporalAdjusters;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class DashboardServiceImpl implements DashboardService {
 
+    private final DailyStatsRepository dailyStatsRepository;
     private final BookingRepository bookingRepository;
-    private final InvoiceRepository invoiceRepository;
     private final AuditLogService auditLogService;
+    private final DashboardSummaryCache dashboardSummaryCache;
+    private final DashboardQueryRunner dashboardQueryRunner;
+    private final OccupancyAnalytics occupancyAnalytics;
+    private final MetricRollupStore metricRollupStore;
+    private final ExecutorService dashboardQueryExecutor;
+    private final DegradationGuard degradationGuard;
+
+    private final AtomicBoolean refreshRequested = new AtomicBoolean();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
 
     @Override
     public DashboardDto getDashboardSummary(int days) {
-        DashboardDto dashboardDto = new DashboardDto();
+        DashboardDto dashboardDto = degradationGuard.read("dashboard:" + days, () -> summaryFor(days));
 
         LocalDate today = LocalDate.now();
         LocalDate startDate = today.minusDays(days - 1);
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = today.atTime(LocalTime.MAX);
-        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime endOfToday = LocalDate.now().atTime(LocalTime.MAX);
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        String details = "Viewed dashboard summary for last " + days + " days (" +
+                startDate + " → " + today + "), totalBookings=" + dashboardDto.getTotalBookings() +
+                ", totalRevenue=" + dashboardDto.getTotalRevenueGenerated();
 
-        dashboardDto.setTotalBookings(bookingRepository.count());
-        dashboardDto.setCancelledBookings(bookingRepository.countByStatus("CANCELLED"));
-        dashboardDto.setActiveBookings(
-                (long) bookingRepository.findByStatusAndCheckOutDateAfter("CHECKED IN", endDateTime).size()
-        );
-        dashboardDto.setCheckedInBookings(
-                (long) bookingRepository.findByActualCheckInTimeIsNotNull().size()
-        );
-        dashboardDto.setCheckedOutBookingsToday(
-                (long) bookingRepository.findByActualCheckOutTimeBetween(startOfToday, now).size()
-        );
-        dashboardDto.setUpcomingCheckInsToday(
-                (long) bookingRepository.findByCheckInDateBetween(now, endOfToday).size()
-        );
-        dashboardDto.setUpcomingCheckOutsToday(
-                (long) bookingRepository.findByCheckOutDateBetween(now, endOfToday).size()
+        auditLogService.log(
+                username,
+                "READ",
+                "Dashboard",
+                null,
+                details
         );
 
-        LocalDateTime firstDayOfMonth = today.with(TemporalAdjusters.firstDayOfMonth()).atStartOfDay();
-        LocalDateTime lastDayOfMonth = today.with(TemporalAdjusters.lastDayOfMonth()).atTime(LocalTime.MAX);
-        dashboardDto.setTotalGuestsCurrentMonth(
-                bookingRepository.countTotalGuestsBetween(firstDayOfMonth, lastDayOfMonth)
-        );
+        return dashboardDto;
+    }
 
-        dashboardDto.setTotalInvoices(invoiceRepository.count());
-        dashboardDto.setPaidInvoices(invoiceRepository.countByStatus("PAID"));
-        dashboardDto.setPendingInvoices(invoiceRepository.countByStatus("PENDING"));
-
-        BigDecimal totalRevenue = invoiceRepository.sumPaidAmountByStatus("PAID");
-        dashboardDto.setTotalRevenueGenerated(totalRevenue != null ? totalRevenue : BigDecimal.ZERO);
-
-        BigDecimal outstandingAmount = invoiceRepository.sumOutstandingAmountByStatus("PENDING");
-        dashboardDto.setTotalOutstandingAmount(outstandingAmount != null ? outstandingAmount : BigDecimal.ZERO);
-
-        List<Booking> recentBookings = bookingRepository.findByCheckInDateBetween(startDateTime, endDateTime);
-        Map<LocalDate, Long> bookingsPerDayMap = recentBookings.stream()
-                .filter(b -> b.getCheckInDate() != null)
-                .collect(Collectors.groupingBy(
-                        b -> b.getCheckInDate().toLocalDate(),
-                        Collectors.counting()
-                ));
-        dashboardDto.setBookingsPerDayLast7Days(
-                populateMissingDates(bookingsPerDayMap, startDate, today)
-        );
+    @Override
+    public List<DashboardQueryTimingDto> getQueryTimings() {
+        return dashboardQueryRunner.timings();
+    }
 
-        Map<String, Long> bookingsPerStatusMap = bookingRepository.findAll().stream()
-                .filter(b -> b.getStatus() != null)
-                .collect(Collectors.groupingBy(
-                        Booking::getStatus,
-                        Collectors.counting()
-                ));
-        dashboardDto.setBookingsPerStatus(bookingsPerStatusMap);
-
-        Map<String, Long> invoicesPerStatusMap = invoiceRepository.findAll().stream()
-                .filter(i -> i.getStatus() != null)
-                .collect(Collectors.groupingBy(
-                        Invoice::getStatus,
-                        Collectors.counting()
-                ));
-        dashboardDto.setInvoicesPerStatus(invoicesPerStatusMap);
-
-        Map<String, BigDecimal> revenuePerPaymentMethodMap = invoiceRepository.findByStatus("PAID").stream()
-                .filter(i -> i.getPaymentMethod() != null && i.getPaidAmount() != null)
-                .collect(Collectors.groupingBy(
-                        Invoice::getPaymentMethod,
-                        Collectors.reducing(BigDecimal.ZERO, Invoice::getPaidAmount, BigDecimal::add)
-                ));
-        dashboardDto.setRevenuePerPaymentMethod(revenuePerPaymentMethodMap);
-
-        List<Invoice> recentPaidInvoices = invoiceRepository.findByIssuedDateBetween(startDateTime, endDateTime);
-        Map<LocalDate, BigDecimal> dailyRevenueMap = recentPaidInvoices.stream()
-                .filter(i -> "PAID".equals(i.getStatus()))
-                .filter(i -> i.getIssuedDate() != null && i.getPaidAmount() != null)
-                .collect(Collectors.groupingBy(
-                        i -> i.getIssuedDate().toLocalDate(),
-                        Collectors.reducing(BigDecimal.ZERO, Invoice::getPaidAmount, BigDecimal::add)
-                ));
-        dashboardDto.setDailyRevenueLast7Days(
-                populateMissingRevenueDates(dailyRevenueMap, startDate, today)
-        );
+    @Override
+    public OccupancyAnalyticsDto getOccupancyAnalytics(LocalDate from, LocalDate to) {
+        OccupancyAnalyticsDto analytics = degradationGuard.read("analytics:" + from + ":" + to,
+                () -> occupancyAnalytics.compute(from, to));
 
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        String details = "Viewed dashboard summary for last " + days + " days (" +
-                startDate + " → " + today + "), totalBookings=" + dashboardDto.getTotalBookings() +
-                ", totalRevenue=" + dashboardDto.getTotalRevenueGenerated();
+        String details = "Viewed occupancy analytics (" + from + " → " + to + "), rooms=" + analytics.getRooms() +
+                ", occupancy=" + analytics.getTotal().getOccupancyRate() +
+                ", revPar=" + analytics.getTotal().getRevPar();
 
         auditLogService.log(
                 username,
@@ -135,22 +98,181 @@ public class DashboardServiceImpl implements DashboardService {
                 details
         );
 
-        return dashboardDto;
+        return analytics;
+    }
+
+    @Override
+    public TimeSeriesDto getTimeSeries(MetricRollupStore.Metric metric, MetricRollupStore.Granularity granularity,
+                                       LocalDateTime from, LocalDateTime to) {
+        long[] series = metricRollupStore.range(metric, granularity, from, to);
+        int scale = metric == MetricRollupStore.Metric.REVENUE ? 2 : 0;
+        long first = granularity.bucket(from);
+
+        Map<LocalDateTime, BigDecimal> values = new LinkedHashMap<>();
+        long total = 0;
+        for (int i = 0; i < series.length; i++) {
+            values.put(granularity.start(first + i), BigDecimal.valueOf(series[i], scale));
+            total += series[i];
+        }
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        auditLogService.log(
+                username,
+                "READ",
+                "Dashboard",
+                null,
+                "Viewed " + granularity + " " + metric + " time series (" + from + " → " + to + ")"
+        );
+
+        return new TimeSeriesDto(metric.name(), granularity.name(), from, to, BigDecimal.valueOf(total, scale), values);
+    }
+
+    /**
+     * Recomputes the partials for the longest standard window and every standard
+     * window from them, then pins the set. Runs periodically and after changes.
+     */
+    @Scheduled(fixedDelayString = "${hms.dashboard.prewarm-interval-ms:60000}")
+    public void refreshPrewarmedWindows() {
+        long generation = dashboardSummaryCache.generation();
+        List<Integer> windows = dashboardSummaryCache.prewarmedWindows();
+        if (windows.isEmpty()) {
+            return;
+        }
+
+        DashboardPartials partials = loadPartials(Collections.max(windows));
+        Map<Integer, DashboardDto> summaries = new HashMap<>();
+        for (int days : windows) {
+            summaries.put(days, compose(partials, days));
+        }
+        dashboardSummaryCache.pin(generation, partials, summaries);
     }
 
-    private Map<LocalDate, Long> populateMissingDates(Map<LocalDate, Long> data, LocalDate startDate, LocalDate endDate) {
-        Map<LocalDate, Long> populatedData = new LinkedHashMap<>();
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            populatedData.put(date, data.getOrDefault(date, 0L));
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyStatsChanged(DailyStatsChangedEvent event) {
+        refreshRequested.set(true);
+        if (refreshing.compareAndSet(false, true)) {
+            dashboardQueryExecutor.execute(this::drainRefreshRequests);
         }
-        return populatedData;
     }
 
-    private Map<LocalDate, BigDecimal> populateMissingRevenueDates(Map<LocalDate, BigDecimal> data, LocalDate startDate, LocalDate endDate) {
-        Map<LocalDate, BigDecimal> populatedData = new LinkedHashMap<>();
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            populatedData.put(date, data.getOrDefault(date, BigDecimal.ZERO));
+    private void drainRefreshRequests() {
+        do {
+            try {
+                while (refreshRequested.getAndSet(false)) {
+                    refreshPrewarmedWindows();
+                }
+            } finally {
+                refreshing.set(false);
+            }
+        } while (refreshRequested.get() && refreshing.compareAndSet(false, true));
+    }
+
+    private DashboardDto summaryFor(int days) {
+        DashboardSummaryCache.Pinned pinned = dashboardSummaryCache.pinned();
+        if (pinned != null) {
+            DashboardDto standard = pinned.windows().get(days);
+            if (standard != null) {
+                return standard;
+            }
+            if (days > 0 && days <= pinned.partials().days()) {
+                return compose(pinned.partials(), days);
+            }
         }
-        return populatedData;
+        return dashboardSummaryCache.get(days, () -> compose(loadPartials(days), days));
+    }
+
+    private DashboardPartials loadPartials(int days) {
+        long started = System.nanoTime();
+
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime endOfToday = today.atTime(LocalTime.MAX);
+
+        DashboardQueryRunner.Query<DailyStats> totalsQuery = dashboardQueryRunner.fork("totals",
+                dailyStatsRepository::sumAll);
+        DashboardQueryRunner.Query<Long> activeQuery = dashboardQueryRunner.fork("activeBookings",
+                () -> dailyStatsRepository.sumInHouseCheckOutsAfter(today));
+        DashboardQueryRunner.Query<Long> upcomingCheckInsQuery = dashboardQueryRunner.fork("upcomingCheckIns",
+                () -> bookingRepository.countByCheckInDateBetween(now, endOfToday));
+        DashboardQueryRunner.Query<Long> upcomingCheckOutsQuery = dashboardQueryRunner.fork("upcomingCheckOuts",
+                () -> bookingRepository.countByCheckOutDateBetween(now, endOfToday));
+
+        long windowStarted = System.nanoTime();
+        LocalDateTime from = today.minusDays(days - 1).atStartOfDay();
+        LocalDateTime to = today.atStartOfDay();
+        long[] bookings;
+        long[] revenue;
+        if (days <= MetricRollupStore.MAX_POINTS) {
+            bookings = metricRollupStore.range(MetricRollupStore.Metric.BOOKINGS, MetricRollupStore.Granularity.DAY, from, to);
+            revenue = metricRollupStore.range(MetricRollupStore.Metric.REVENUE, MetricRollupStore.Granularity.DAY, from, to);
+        } else {
+            bookings = new long[days];
+            revenue = new long[days];
+            for (DailyStats day : dailyStatsRepository.findBetween(from.toLocalDate(), today)) {
+                if (DailyStats.UNDATED.equals(day.getStatDate())) {
+                    continue;
+                }
+                int index = (int) ChronoUnit.DAYS.between(from.toLocalDate(), day.getStatDate());
+                bookings[index] = day.getBookings();
+                revenue[index] = day.getRevenue().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+            }
+        }
+        long guestsCurrentMonth = metricRollupStore.sum(MetricRollupStore.Metric.GUESTS, MetricRollupStore.Granularity.MONTH, to, to);
+        long checkedOutToday = metricRollupStore.sum(MetricRollupStore.Metric.CHECK_OUTS, MetricRollupStore.Granularity.DAY, to, to);
+        dashboardQueryRunner.record("window", System.nanoTime() - windowStarted);
+
+        DashboardPartials partials = new DashboardPartials(
+                today,
+                now,
+                totalsQuery.join(),
+                activeQuery.join(),
+                upcomingCheckInsQuery.join(),
+                upcomingCheckOutsQuery.join(),
+                guestsCurrentMonth,
+                checkedOutToday,
+                bookings,
+                revenue
+        );
+
+        dashboardQueryRunner.record(DashboardQueryRunner.SUMMARY, System.nanoTime() - started);
+        return partials;
+    }
+
+    private static DashboardDto compose(DashboardPartials partials, int days) {
+        DashboardDto dashboardDto = new DashboardDto();
+        DailyStats totals = partials.totals();
+
+        LocalDate startDate = partials.today().minusDays(days - 1);
+        int offset = partials.days() - days;
+        Map<LocalDate, Long> bookingsPerDay = new LinkedHashMap<>();
+        Map<LocalDate, BigDecimal> revenuePerDay = new LinkedHashMap<>();
+        for (int i = 0; i < days; i++) {
+            LocalDate date = startDate.plusDays(i);
+            bookingsPerDay.put(date, partials.bookingsPerDay()[offset + i]);
+            revenuePerDay.put(date, BigDecimal.valueOf(partials.revenuePerDay()[offset + i], 2));
+        }
+
+        dashboardDto.setTotalBookings(totals.getBookings());
+        dashboardDto.setCancelledBookings(totals.getBookingsByStatus().getOrDefault("CANCELLED", 0L));
+        dashboardDto.setActiveBookings(partials.activeBookings());
+        dashboardDto.setCheckedInBookings(totals.getCheckIns());
+        dashboardDto.setCheckedOutBookingsToday(partials.checkedOutToday());
+        dashboardDto.setUpcomingCheckInsToday(partials.upcomingCheckIns());
+        dashboardDto.setUpcomingCheckOutsToday(partials.upcomingCheckOuts());
+        dashboardDto.setTotalGuestsCurrentMonth(partials.guestsCurrentMonth());
+
+        dashboardDto.setTotalInvoices(totals.getInvoices());
+        dashboardDto.setPaidInvoices(totals.getInvoicesByStatus().getOrDefault("PAID", 0L));
+        dashboardDto.setPendingInvoices(totals.getInvoicesByStatus().getOrDefault("PENDING", 0L));
+        dashboardDto.setTotalRevenueGenerated(totals.getRevenue());
+        dashboardDto.setTotalOutstandingAmount(totals.getOutstanding());
+
+        dashboardDto.setBookingsPerDayLast7Days(bookingsPerDay);
+        dashboardDto.setBookingsPerStatus(totals.getBookingsByStatus());
+        dashboardDto.setInvoicesPerStatus(totals.getInvoicesByStatus());
+        dashboardDto.setRevenuePerPaymentMethod(totals.getRevenueByPaymentMethod());
+        dashboardDto.setDailyRevenueLast7Days(revenuePerDay);
+        dashboardDto.setGeneratedAt(partials.generatedAt());
+        return dashboardDto;
     }
-}
\ No newline at end of file
+}
@@ -7,7 +7,9 @@ import net.java.hms_backend.exception.ResourceNotFoundException;
 import net.java.hms_backend.mapper.HotelInfoMapper;
 import net.java.hms_backend.repository.HotelInfoRepository;
 import net.java.hms_backend.service.AuditLogService;
+import net.java.hms_backend.service.DegradationGuard;
 import net.java.hms_backend.service.HotelInfoService;
+import net.java.hms_backend.service.InvoicePdfPipeline;
 import net.java.hms_backend.service.NotificationService;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -16,33 +18,40 @@ import org.springframework.stereotype.Service;
 @AllArgsConstructor
 public class HotelInfoServiceImpl implements HotelInfoService {
 
+    private static final String HOTEL_INFO_KEY = "hotel-info";
+
     private final HotelInfoRepository hotelInfoRepository;
     private final AuditLogService auditLogService;
     private final NotificationService notificationService;
+    private final DegradationGuard degradationGuard;
+    private final InvoicePdfPipeline invoicePdfPipeline;
 
     @Override
     public HotelInfoDto getHotelInfo() {
-        HotelInfo entity = hotelInfoRepository.findAll().stream().findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("HotelInfo", "id", "any"));
+        CachedHotelInfo cached = degradationGuard.readInTransaction(HOTEL_INFO_KEY,
+                () -> hotelInfoRepository.findAll().stream().findFirst()
+                        .map(entity -> new CachedHotelInfo(entity.getId(), HotelInfoMapper.toDto(entity)))
+                        .orElseThrow(() -> new ResourceNotFoundException("HotelInfo", "id", "any")));
+        HotelInfoDto dto = cached.dto();
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
 
-        String details = "Viewed hotel info: name=" + entity.getName() +
-                ", address=" + entity.getAddress() +
-                ", phone=" + entity.getPhone() +
-                ", email=" + entity.getEmail() +
-                ", taxCode=" + entity.getTaxCode() +
-                ", numberOfFloors=" + entity.getNumberOfFloors() +
-                ", checkInTime=" + entity.getCheckInTime() +
-                ", checkOutTime=" + entity.getCheckOutTime();
+        String details = "Viewed hotel info: name=" + dto.getName() +
+                ", address=" + dto.getAddress() +
+                ", phone=" + dto.getPhone() +
+                ", email=" + dto.getEmail() +
+                ", taxCode=" + dto.getTaxCode() +
+                ", numberOfFloors=" + dto.getNumberOfFloors() +
+                ", checkInTime=" + dto.getCheckInTime() +
+                ", checkOutTime=" + dto.getCheckOutTime();
 
         auditLogService.log(
                 username,
                 "READ",
                 "HotelInfo",
-                entity.getId(),
+                cached.id(),
                 details
         );
-        return HotelInfoMapper.toDto(entity);
+        return dto;
     }
 
 
@@ -94,6 +103,8 @@ public class HotelInfoServiceImpl implements HotelInfoService {
         }
 
         HotelInfo saved = hotelInfoRepository.save(entity);
+        invoicePdfPipeline.hotelInfoChangedAfterCommit();
+        degradationGuard.invalidateAfterCommit(HOTEL_INFO_KEY);
 
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
 
@@ -113,4 +124,7 @@ public class HotelInfoServiceImpl implements HotelInfoService {
 
         return HotelInfoMapper.toDto(saved);
     }
+
+    private record CachedHotelInfo(Long id, HotelInfoDto dto) {
+    }
 }
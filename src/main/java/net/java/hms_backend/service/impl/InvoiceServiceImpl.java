@@ -7,12 +7,13 @@ import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.AllArgsConstructor;
-import net.java.hms_backend.dto.HotelInfoDto;
+import net.java.hms_backend.dto.CursorPage;
 import net.java.hms_backend.dto.InvoiceDto;
 import net.java.hms_backend.dto.InvoiceFilterRequest;
 import net.java.hms_backend.entity.*;
 import net.java.hms_backend.exception.InvoiceException;
 import net.java.hms_backend.exception.ResourceNotFoundException;
+import net.java.hms_backend.exception.VersionConflictException;
 import net.java.hms_backend.mapper.InvoiceMapper;
 import net.java.hms_backend.repository.BookingRepository;
 import net.java.hms_backend.repository.InvoiceRepository;
@@ -20,21 +21,14 @@ import net.java.hms_backend.service.*;
 import org.springframework.data.domain.*;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
-
-import com.lowagie.text.*;
-import com.lowagie.text.pdf.PdfPCell;
-import com.lowagie.text.pdf.PdfPTable;
-import com.lowagie.text.pdf.PdfWriter;
-import net.java.hms_backend.entity.Invoice;
 
 @Service
 @AllArgsConstructor
@@ -42,15 +36,18 @@ public class InvoiceServiceImpl implements InvoiceService {
 
     private final InvoiceRepository invoiceRepository;
     private final BookingRepository bookingRepository;
-    private final HotelInfoService hotelInfoService;
-    private final PromotionService promotionService;
+    private final PricingEngine pricingEngine;
     private final AuditLogService auditLogService;
     private final NotificationService notificationService;
+    private final DailyStatsService dailyStatsService;
+    private final DashboardEventStream dashboardEventStream;
+    private final InvoicePdfPipeline invoicePdfPipeline;
 
     @PersistenceContext
     private EntityManager entityManager;
 
     @Override
+    @Transactional
     public InvoiceDto createInvoice(InvoiceDto invoiceDto) {
         Booking booking = bookingRepository.findById(invoiceDto.getBookingId())
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", invoiceDto.getBookingId()));
@@ -62,43 +59,15 @@ public class InvoiceServiceImpl implements InvoiceService {
         }
 
         Room room = booking.getRoom();
-        PriceType bookingPriceType = PriceType.valueOf(booking.getBookingType());
-
-        RoomPrice roomPrice = room.getPrices().stream()
-                .filter(p -> p.getPriceType() == bookingPriceType)
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("RoomPrice", "priceType", bookingPriceType));
-
-        LocalDateTime start = booking.getCheckInDate();
-        LocalDateTime end = booking.getCheckOutDate();
-
-        long durationInMinutes = Duration.between(start, end).toMinutes();
-        if (durationInMinutes <= 0) durationInMinutes = 60;
-
-        Optional<Promotion> promotionOpt = promotionService.getPromotionForBooking(start, end);
-        double basePrice = roomPrice.getBasePrice();
-        if (promotionOpt.isPresent()) {
-            double discountPercent = promotionOpt.get().getDiscountPercent();
-            basePrice *= (1 - discountPercent / 100.0);
-        }
-
-        BigDecimal amount;
-        if (bookingPriceType == PriceType.HOURLY) {
-            double hours = Math.ceil(durationInMinutes / 60.0);
-            amount = BigDecimal.valueOf(basePrice * hours);
-        } else {
-            long days = (long) Math.ceil(Duration.between(start, end).toMinutes() / 1440.0);
-            if (days <= 0) days = 1;
-            amount = BigDecimal.valueOf(basePrice * days);
-        }
-
-        amount = amount.setScale(0, RoundingMode.HALF_UP);
+        BigDecimal amount = quote(booking).amount();
         Invoice invoice = InvoiceMapper.mapToInvoice(invoiceDto, booking);
         invoice.setAmount(amount);
         invoice.setPaidAmount(BigDecimal.ZERO);
         invoice.setIssuedDate(LocalDateTime.now());
 
         Invoice savedInvoice = invoiceRepository.save(invoice);
+        dailyStatsService.recordInvoiceChange(null, DailyStatsService.InvoiceFacts.of(savedInvoice));
+        dashboardEventStream.invoiceUpdated(null, savedInvoice);
 
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         String details = "Created invoice: bookingId=" + booking.getId() +
@@ -168,10 +137,16 @@ public class InvoiceServiceImpl implements InvoiceService {
 
 
     @Override
+    @Transactional
     public InvoiceDto updateInvoice(Long id, InvoiceDto invoiceDto) {
         Invoice invoice = invoiceRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Invoice", "id", id));
 
+        if (invoiceDto.getVersion() != null && !invoiceDto.getVersion().equals(invoice.getVersion())) {
+            throw new VersionConflictException("Invoice", id, invoiceDto.getVersion(), invoice.getVersion());
+        }
+        DailyStatsService.InvoiceFacts before = DailyStatsService.InvoiceFacts.of(invoice);
+
         StringBuilder changes = new StringBuilder("Updated invoice ID: " + id + ". Changes: ");
 
         if (invoiceDto.getBookingId() != null &&
@@ -183,38 +158,7 @@ public class InvoiceServiceImpl implements InvoiceService {
                     .append(" → ").append(invoiceDto.getBookingId()).append("; ");
             invoice.setBooking(booking);
 
-            Room room = booking.getRoom();
-            PriceType bookingPriceType = PriceType.valueOf(booking.getBookingType());
-
-            RoomPrice roomPrice = room.getPrices().stream()
-                    .filter(p -> p.getPriceType() == bookingPriceType)
-                    .findFirst()
-                    .orElseThrow(() -> new ResourceNotFoundException("RoomPrice", "priceType", bookingPriceType));
-
-            LocalDateTime start = booking.getCheckInDate();
-            LocalDateTime end = booking.getCheckOutDate();
-            long durationInMinutes = Duration.between(start, end).toMinutes();
-            if (durationInMinutes <= 0) durationInMinutes = 60;
-
-            Optional<Promotion> promotionOpt = promotionService.getPromotionForBooking(start, end);
-
-            double basePrice = roomPrice.getBasePrice();
-            if (promotionOpt.isPresent()) {
-                double discountPercent = promotionOpt.get().getDiscountPercent();
-                basePrice *= (1 - discountPercent / 100.0);
-            }
-
-            BigDecimal amount;
-            if (bookingPriceType == PriceType.HOURLY) {
-                double hours = Math.ceil(durationInMinutes / 60.0);
-                amount = BigDecimal.valueOf(basePrice * hours);
-            } else {
-                long days = (long) Math.ceil(durationInMinutes / 1440.0);
-                if (days <= 0) days = 1;
-                amount = BigDecimal.valueOf(basePrice * days);
-            }
-
-            amount = amount.setScale(0, RoundingMode.HALF_UP);
+            BigDecimal amount = quote(booking).amount();
             changes.append("amount recalculated → ").append(amount).append("; ");
             invoice.setAmount(amount);
         }
@@ -250,6 +194,8 @@ public class InvoiceServiceImpl implements InvoiceService {
         }
 
         Invoice updatedInvoice = invoiceRepository.save(invoice);
+        dailyStatsService.recordInvoiceChange(before, DailyStatsService.InvoiceFacts.of(updatedInvoice));
+        dashboardEventStream.invoiceUpdated(before.status(), updatedInvoice);
 
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
 
@@ -265,6 +211,7 @@ public class InvoiceServiceImpl implements InvoiceService {
     }
 
     @Override
+    @Transactional
     public void deleteInvoice(Long id) {
         Invoice invoice = invoiceRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Invoice", "id", id));
@@ -298,6 +245,7 @@ public class InvoiceServiceImpl implements InvoiceService {
         );
 
         invoiceRepository.delete(invoice);
+        dailyStatsService.recordInvoiceChange(DailyStatsService.InvoiceFacts.of(invoice), null);
     }
 
     @Override
@@ -372,6 +320,56 @@ public class InvoiceServiceImpl implements InvoiceService {
         return invoicePage.map(InvoiceMapper::mapToInvoiceDto);
     }
 
+    @Override
+    public CursorPage<InvoiceDto> scrollInvoices(InvoiceFilterRequest filter, Long after, int size, boolean includeTotal) {
+        size = CursorPage.pageSize(size);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Invoice> query = cb.createQuery(Invoice.class);
+        Root<Invoice> invoice = query.from(Invoice.class);
+        query.select(invoice);
+
+        List<Predicate> predicates = buildPredicates(filter, cb, invoice);
+        if (after != null) {
+            predicates.add(cb.lessThan(invoice.get("id"), after));
+        }
+        query.where(cb.and(predicates.toArray(new Predicate[0])));
+        query.orderBy(cb.desc(invoice.get("id")));
+
+        List<Invoice> result = entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
+
+        boolean hasNext = result.size() > size;
+        List<Invoice> content = hasNext ? result.subList(0, size) : result;
+        Long nextCursor = hasNext ? content.get(content.size() - 1).getId() : null;
+
+        Long total = null;
+        if (includeTotal) {
+            CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+            Root<Invoice> countRoot = countQuery.from(Invoice.class);
+            countQuery.select(cb.count(countRoot));
+            countQuery.where(cb.and(buildPredicates(filter, cb, countRoot).toArray(new Predicate[0])));
+            total = entityManager.createQuery(countQuery).getSingleResult();
+        }
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        String details = "Scrolled invoices - after: " + after +
+                ", size: " + size +
+                ", returned: " + content.size() +
+                (total != null ? ", TotalResults=" + total : "");
+
+        auditLogService.log(
+                username,
+                "FILTER",
+                "Invoice",
+                null,
+                details
+        );
+        return new CursorPage<>(content.stream().map(InvoiceMapper::mapToInvoiceDto).toList(), size, nextCursor, total);
+    }
+
     private List<Predicate> buildPredicates(InvoiceFilterRequest filter, CriteriaBuilder cb, Root<Invoice> root) {
         List<Predicate> predicates = new ArrayList<>();
 
@@ -415,120 +413,73 @@ public class InvoiceServiceImpl implements InvoiceService {
     }
 
     @Override
-    public byte[] generateInvoicePdf(InvoiceDto invoiceDto) {
-        try {
-            HotelInfoDto hotel = hotelInfoService.getHotelInfo();
+    public InvoicePdfPipeline.RenderedPdf getInvoicePdf(Long id) {
+        InvoicePdfPipeline.RenderedPdf pdf = invoicePdfPipeline.fetch(id);
+        InvoicePdfContent content = pdf.content();
 
-            Booking booking = bookingRepository.findById(invoiceDto.getBookingId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", invoiceDto.getBookingId()));
-            Invoice invoice = InvoiceMapper.mapToInvoice(invoiceDto, booking);
-
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            Document document = new Document(PageSize.A4, 36, 36, 54, 36);
-            PdfWriter.getInstance(document, out);
-
-            document.open();
-
-            Font hotelFont = FontFactory.getFont(FontFactory.HELVETICA, 14, Font.BOLD);
-            document.add(new Paragraph(hotel.getName(), hotelFont));
-            document.add(new Paragraph(hotel.getAddress()));
-            document.add(new Paragraph("Phone: " + hotel.getPhone() + " | Email: " + hotel.getEmail()));
-            document.add(new Paragraph("MST: " + hotel.getTaxCode()));
-            document.add(new Paragraph(" "));
-
-            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA, 20, Font.BOLD);
-            Paragraph title = new Paragraph("HOA DON THANH TOAN (INVOICE)", titleFont);
-            title.setAlignment(Element.ALIGN_CENTER);
-            document.add(title);
-            document.add(new Paragraph(" "));
-
-            document.add(new Paragraph("Số hóa đơn: " + invoice.getId()));
-            document.add(new Paragraph("Mã Booking: " + booking.getId()));
-            document.add(new Paragraph("Khách hàng: " + booking.getGuestFullName()));
-            document.add(new Paragraph("Số phòng: " + booking.getRoom().getRoomNumber()));
-            document.add(new Paragraph("Ngày lập: " + invoice.getIssuedDate()));
-            document.add(new Paragraph("Hạn thanh toán: " + invoice.getDueDate()));
-            document.add(new Paragraph("Trạng thái: " + invoice.getStatus()));
-            document.add(new Paragraph(" "));
-
-            PdfPTable serviceTable = new PdfPTable(4);
-            serviceTable.setWidthPercentage(100);
-            serviceTable.setWidths(new int[]{4, 1, 2, 2});
-
-            serviceTable.addCell(new PdfPCell(new Phrase("Dịch vụ")));
-            serviceTable.addCell(new PdfPCell(new Phrase("SL")));
-            serviceTable.addCell(new PdfPCell(new Phrase("Đơn giá")));
-            serviceTable.addCell(new PdfPCell(new Phrase("Thành tiền")));
-
-            Room room = booking.getRoom();
-            PriceType bookingPriceType = PriceType.valueOf(booking.getBookingType());
-
-            RoomPrice roomPrice = room.getPrices().stream()
-                    .filter(p -> p.getPriceType() == bookingPriceType)
-                    .findFirst()
-                    .orElseThrow(() -> new ResourceNotFoundException("RoomPrice", "priceType", bookingPriceType));
-
-            LocalDateTime start = booking.getActualCheckInTime() != null ? booking.getActualCheckInTime() : booking.getCheckInDate();
-            LocalDateTime end = booking.getActualCheckOutTime() != null ? booking.getActualCheckOutTime() : booking.getCheckOutDate();
-
-            long nights = java.time.Duration.between(start, end).toDays();
-            BigDecimal amount = BigDecimal.valueOf(roomPrice.getBasePrice() * nights);
-            serviceTable.addCell("Tiền phòng (" + nights + " đêm)");
-            serviceTable.addCell(String.valueOf(nights));
-            serviceTable.addCell(String.valueOf(roomPrice.getBasePrice()));
-            serviceTable.addCell(String.valueOf(amount));
-
-            document.add(serviceTable);
-            document.add(new Paragraph(" "));
-
-            BigDecimal subTotal = invoice.getAmount();
-
-            PdfPTable summaryTable = new PdfPTable(2);
-            summaryTable.setWidthPercentage(50);
-            summaryTable.setHorizontalAlignment(Element.ALIGN_RIGHT);
-
-            summaryTable.addCell("Tổng tiền");
-            summaryTable.addCell(subTotal.toPlainString());
-
-            summaryTable.addCell("Đã thanh toán");
-            summaryTable.addCell(invoice.getPaidAmount().toPlainString());
-
-            summaryTable.addCell("Còn lại");
-            summaryTable.addCell(subTotal.subtract(invoice.getPaidAmount()).toPlainString());
-
-            document.add(summaryTable);
-            document.add(new Paragraph(" "));
-
-            document.add(new Paragraph("Phương thức thanh toán: " + (invoice.getPaymentMethod() != null ? invoice.getPaymentMethod() : "Chưa xác định")));
-            document.add(new Paragraph("Ghi chú: " + (invoice.getNotes() != null ? invoice.getNotes() : "")));
-            document.add(new Paragraph(" "));
-            document.add(new Paragraph("Xin cam on Quy khach da su dung dich vu cua chung toi!", hotelFont));
-
-            document.close();
-
-            String username = SecurityContextHolder.getContext().getAuthentication().getName();
-
-            StringBuilder details = new StringBuilder("Generated PDF for invoice ID: ")
-                    .append(invoice.getId())
-                    .append(", Booking ID: ").append(booking.getId())
-                    .append(", Guest: ").append(booking.getGuestFullName())
-                    .append(", Room: ").append(booking.getRoom().getRoomNumber())
-                    .append(", Status: ").append(invoice.getStatus())
-                    .append(", Issued Date: ").append(invoice.getIssuedDate())
-                    .append(", Amount: ").append(invoice.getAmount().toPlainString());
-
-            auditLogService.log(
-                    username,
-                    "GENERATE_PDF",
-                    "Invoice",
-                    invoice.getId(),
-                    details.toString()
-            );
-
-            return out.toByteArray();
-
-        } catch (Exception e) {
-            throw new InvoiceException.PdfGenerationException("Error while generating PDF", e);
-        }
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        String details = "Generated PDF for invoice ID: " + content.invoiceId() +
+                ", Booking ID: " + content.bookingId() +
+                ", Guest: " + content.guestFullName() +
+                ", Room: " + content.roomNumber() +
+                ", Status: " + content.status() +
+                ", Issued Date: " + content.issuedDate() +
+                ", Amount: " + content.amount().toPlainString() +
+                ", Cached: " + pdf.cached();
+
+        auditLogService.log(
+                username,
+                "GENERATE_PDF",
+                "Invoice",
+                content.invoiceId(),
+                details
+        );
+        return pdf;
+    }
+
+    @Override
+    public InvoicePdfPipeline.RenderedPdf refetchInvoicePdf(InvoicePdfPipeline.RenderedPdf pdf) {
+        return invoicePdfPipeline.refetch(pdf);
+    }
+
+    @Override
+    public void prerenderInvoicePdf(Long id) {
+        invoicePdfPipeline.prerender(id);
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        auditLogService.log(
+                username,
+                "PRERENDER_PDF",
+                "Invoice",
+                id,
+                "Requested PDF pre-rendering for invoice ID: " + id
+        );
+    }
+
+    @Override
+    public void exportInvoicePdfs(InvoiceFilterRequest filter, OutputStream out) throws IOException {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Invoice> invoice = query.from(Invoice.class);
+        query.select(invoice.get("id"));
+        query.where(cb.and(buildPredicates(filter, cb, invoice).toArray(new Predicate[0])));
+        query.orderBy(cb.asc(invoice.get("id")));
+        List<Long> ids = entityManager.createQuery(query).getResultList();
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        auditLogService.log(
+                username,
+                "EXPORT_PDF",
+                "Invoice",
+                null,
+                "Exported " + ids.size() + " invoice PDFs"
+        );
+
+        invoicePdfPipeline.exportZip(ids, out);
+    }
+
+    private PricingEngine.Quote quote(Booking booking) {
+        return pricingEngine.quote(booking.getRoom().getId(), booking.getBookingType(),
+                booking.getCheckInDate(), booking.getCheckOutDate());
     }
 }
@@ -12,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -68,16 +69,38 @@ public class NotificationServiceImpl implements NotificationService {
 
     public void notifyAdminsAndManagers(String type, String title, String message) {
         List<User> recipients = userRepository.findByRoles_NameIn(List.of("ADMIN", "MANAGER"));
-        for (User user : recipients) {
-            sendNotification(user, type, title, message);
-        }
+        sendToAll(recipients, type, title, List.of(message));
     }
 
     public void notifyReceptionists(String type, String title, String message) {
+        notifyReceptionists(type, title, List.of(message));
+    }
+
+    @Override
+    public void notifyReceptionists(String type, String title, List<String> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
         List<User> recipients = userRepository.findByRoles_Name("RECEPTIONIST");
-        for (User user : recipients) {
-            sendNotification(user, type, title, message);
+        sendToAll(recipients, type, title, messages);
+    }
+
+    private void sendToAll(List<User> recipients, String type, String title, List<String> messages) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = new ArrayList<>(recipients.size() * messages.size());
+        for (String message : messages) {
+            for (User user : recipients) {
+                Notification notification = new Notification();
+                notification.setRecipient(user);
+                notification.setType(type);
+                notification.setTitle(title);
+                notification.setMessage(message);
+                notification.setRead(false);
+                notification.setCreatedAt(now);
+                notifications.add(notification);
+            }
         }
+        notificationRepository.insertAllInBatch(notifications);
     }
 }
 
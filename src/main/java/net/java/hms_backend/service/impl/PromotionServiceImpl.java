@@ -9,6 +9,7 @@ import net.java.hms_backend.exception.ResourceNotFoundException;
 import net.java.hms_backend.mapper.PromotionMapper;
 import net.java.hms_backend.repository.PromotionRepository;
 import net.java.hms_backend.service.AuditLogService;
+import net.java.hms_backend.service.PricingEngine;
 import net.java.hms_backend.service.PromotionService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -30,6 +31,7 @@ public class PromotionServiceImpl implements PromotionService {
 
     private final PromotionRepository promotionRepository;
     private final AuditLogService auditLogService;
+    private final PricingEngine pricingEngine;
 
     @Override
     public Optional<Promotion> getActivePromotion() {
@@ -111,6 +113,7 @@ public class PromotionServiceImpl implements PromotionService {
 
         Promotion entity = PromotionMapper.toEntity(dto);
         Promotion saved = promotionRepository.save(entity);
+        pricingEngine.invalidatePromotionsAfterCommit();
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         String details = "Created promotion: [ID=" + saved.getId() +
                 ", Name=" + saved.getName() +
@@ -188,6 +191,7 @@ public class PromotionServiceImpl implements PromotionService {
         }
 
         Promotion updated = promotionRepository.save(promo);
+        pricingEngine.invalidatePromotionsAfterCommit();
 
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         auditLogService.log(username, "UPDATE", "Promotion", updated.getId(), changes.toString());
@@ -208,6 +212,7 @@ public class PromotionServiceImpl implements PromotionService {
 
         auditLogService.log(username, "DELETE", "Promotion", promo.getId(), details);
         promotionRepository.delete(promo);
+        pricingEngine.invalidatePromotionsAfterCommit();
     }
 
     @Override
@@ -1,29 +1,40 @@
 package net.java.hms_backend.service.impl;
 
 import lombok.AllArgsConstructor;
+import net.java.hms_backend.dto.CursorPage;
+import net.java.hms_backend.dto.RoomAvailabilityDto;
+import net.java.hms_backend.dto.RoomAvailabilityGridDto;
 import net.java.hms_backend.dto.RoomDto;
 import net.java.hms_backend.dto.RoomFilterRequest;
 import net.java.hms_backend.dto.RoomPriceDto;
 import net.java.hms_backend.entity.Booking;
-import net.java.hms_backend.entity.Promotion;
 import net.java.hms_backend.entity.Room;
 import net.java.hms_backend.entity.RoomPrice;
 import net.java.hms_backend.exception.ResourceNotFoundException;
+import net.java.hms_backend.exception.VersionConflictException;
 import net.java.hms_backend.exception.RoomException;
 import net.java.hms_backend.mapper.RoomMapper;
+import net.java.hms_backend.repository.BookingRepository;
 import net.java.hms_backend.repository.RoomRepository;
 import net.java.hms_backend.service.AuditLogService;
+import net.java.hms_backend.service.DashboardEventStream;
+import net.java.hms_backend.service.DegradationGuard;
 import net.java.hms_backend.service.NotificationService;
-import net.java.hms_backend.service.PromotionService;
+import net.java.hms_backend.service.PricingEngine;
 import net.java.hms_backend.service.RoomService;
 import org.springframework.data.domain.*;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -35,10 +46,15 @@ import jakarta.persistence.criteria.*;
 @AllArgsConstructor
 public class RoomServiceImpl implements RoomService {
 
+    private static final int MAX_GRID_DAYS = 366;
+
     private final RoomRepository roomRepository;
-    private final PromotionService promotionService;
+    private final BookingRepository bookingRepository;
+    private final PricingEngine pricingEngine;
     private final AuditLogService auditLogService;
     private final NotificationService notificationService;
+    private final DashboardEventStream dashboardEventStream;
+    private final DegradationGuard degradationGuard;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -57,6 +73,7 @@ public class RoomServiceImpl implements RoomService {
             room.getPrices().forEach(price -> price.setRoom(room));
         }
         Room savedRoom = roomRepository.save(room);
+        degradationGuard.invalidateAfterCommit("rooms:");
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         StringBuilder details = new StringBuilder("Created room: [ID=")
                 .append(savedRoom.getId())
@@ -84,13 +101,18 @@ public class RoomServiceImpl implements RoomService {
 
     @Override
     public Page<RoomDto> getAllRooms(int page, int size) {
-        Optional<Promotion> promotionOpt = promotionService.getActivePromotion();
-        Pageable pageable = PageRequest.of(page, size, Sort.by("roomNumber").ascending());
-        Page<Room> roomsPage = roomRepository.findAll(pageable);
+        Page<RoomDto> rooms = degradationGuard.readInTransaction("rooms:" + page + ":" + size, () -> {
+            Pageable pageable = PageRequest.of(page, size, Sort.by("roomNumber").ascending());
+            Page<Room> roomPage = roomRepository.findAll(pageable);
+            LocalDate today = LocalDate.now();
+            Map<Long, List<PricingEngine.Rate>> rates = pricingEngine.displayRates(
+                    roomPage.map(Room::getId).getContent(), today, today);
+            return roomPage.map(room -> RoomMapper.mapToRoomDto(room, rates.get(room.getId())));
+        });
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         String details = "Retrieved room list - Page: " + page +
                 ", Size: " + size +
-                ", Total: " + roomsPage.getTotalElements();
+                ", Total: " + rooms.getTotalElements();
 
         auditLogService.log(
                 username,
@@ -99,7 +121,7 @@ public class RoomServiceImpl implements RoomService {
                 null,
                 details
         );
-        return roomsPage.map(room -> RoomMapper.mapToRoomDto(room, promotionOpt));
+        return rooms;
     }
 
     @Override
@@ -107,7 +129,8 @@ public class RoomServiceImpl implements RoomService {
         Room room = roomRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Room", "id", id));
 
-        Optional<Promotion> promotionOpt = promotionService.getActivePromotion();
+        LocalDate today = LocalDate.now();
+        List<PricingEngine.Rate> rates = pricingEngine.displayRates(List.of(id), today, today).get(id);
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         String details = "Retrieved room by ID: " + id +
                 ", RoomNumber: " + room.getRoomNumber() +
@@ -122,7 +145,7 @@ public class RoomServiceImpl implements RoomService {
                 room.getId(),
                 details
         );
-        return RoomMapper.mapToRoomDto(room, promotionOpt);
+        return RoomMapper.mapToRoomDto(room, rates);
     }
 
     @Override
@@ -130,6 +153,11 @@ public class RoomServiceImpl implements RoomService {
         Room room = roomRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Room", "id", id));
 
+        if (roomDto.getVersion() != null && !roomDto.getVersion().equals(room.getVersion())) {
+            throw new VersionConflictException("Room", id, roomDto.getVersion(), room.getVersion());
+        }
+
+        String previousStatus = room.getStatus();
         StringBuilder changes = new StringBuilder("Updated room ID: ").append(id).append(". Changes: ");
 
         if (roomDto.getRoomNumber() != null) {
@@ -169,6 +197,7 @@ public class RoomServiceImpl implements RoomService {
 
         if (roomDto.getPrices() != null) {
             changes.append("prices updated; ");
+            pricingEngine.invalidateRoomAfterCommit(id);
             room.getPrices().clear();
             for (RoomPriceDto dto : roomDto.getPrices()) {
                 RoomPrice price = new RoomPrice();
@@ -180,6 +209,8 @@ public class RoomServiceImpl implements RoomService {
         }
 
         Room updatedRoom = roomRepository.save(room);
+        degradationGuard.invalidateAfterCommit("rooms:");
+        dashboardEventStream.roomStatusChanged(previousStatus, updatedRoom);
 
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
 
@@ -226,6 +257,8 @@ public class RoomServiceImpl implements RoomService {
         );
 
         roomRepository.delete(room);
+        pricingEngine.invalidateRoomAfterCommit(id);
+        degradationGuard.invalidateAfterCommit("rooms:");
     }
 
     @Override
@@ -256,16 +289,7 @@ public class RoomServiceImpl implements RoomService {
 
         Page<Room> roomsPage = new PageImpl<>(result, pageable, total);
 
-        Optional<Promotion> promotionOpt;
-        if (filter.getDesiredCheckIn() != null && filter.getDesiredCheckOut() != null) {
-            promotionOpt = promotionService.getPromotionForBooking(
-                    filter.getDesiredCheckIn(),
-                    filter.getDesiredCheckOut()
-            );
-        } else {
-            promotionOpt = Optional.empty();
-        }
-        Optional<Promotion> finalPromotionOpt = promotionOpt;
+        Map<Long, List<PricingEngine.Rate>> rates = displayRates(result, filter);
 
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         StringBuilder details = new StringBuilder("Filtered rooms with criteria: ");
@@ -298,10 +322,139 @@ public class RoomServiceImpl implements RoomService {
                 null,
                 details.toString()
         );
-        return roomsPage.map(room -> RoomMapper.mapToRoomDto(room, finalPromotionOpt));
+        return roomsPage.map(room -> RoomMapper.mapToRoomDto(room, rates.get(room.getId())));
+    }
+
+
+    @Override
+    public CursorPage<RoomDto> scrollRooms(RoomFilterRequest filter, Integer afterRoomNumber, int size, boolean includeTotal) {
+        size = CursorPage.pageSize(size);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Room> query = cb.createQuery(Room.class);
+        Root<Room> roomRoot = query.from(Room.class);
+        query.select(roomRoot);
+
+        List<Predicate> predicates = buildRoomPredicates(filter, cb, roomRoot, query);
+        if (afterRoomNumber != null) {
+            predicates.add(cb.greaterThan(roomRoot.get("roomNumber"), afterRoomNumber));
+        }
+        query.where(cb.and(predicates.toArray(new Predicate[0])));
+        query.orderBy(cb.asc(roomRoot.get("roomNumber")));
+
+        List<Room> result = entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
+
+        boolean hasNext = result.size() > size;
+        List<Room> content = hasNext ? result.subList(0, size) : result;
+        Long nextCursor = hasNext ? content.get(content.size() - 1).getRoomNumber().longValue() : null;
+
+        Long total = null;
+        if (includeTotal) {
+            CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+            Root<Room> countRoot = countQuery.from(Room.class);
+            countQuery.select(cb.count(countRoot));
+            countQuery.where(cb.and(buildRoomPredicates(filter, cb, countRoot, countQuery).toArray(new Predicate[0])));
+            total = entityManager.createQuery(countQuery).getSingleResult();
+        }
+
+        Map<Long, List<PricingEngine.Rate>> rates = displayRates(content, filter);
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        String details = "Scrolled rooms - afterRoomNumber: " + afterRoomNumber +
+                ", Size=" + size +
+                ", Returned=" + content.size() +
+                (total != null ? ", TotalResults=" + total : "");
+
+        auditLogService.log(
+                username,
+                "FILTER",
+                "Room",
+                null,
+                details
+        );
+        return new CursorPage<>(
+                content.stream().map(room -> RoomMapper.mapToRoomDto(room, rates.get(room.getId()))).toList(),
+                size,
+                nextCursor,
+                total
+        );
+    }
+
+    @Override
+    public RoomAvailabilityGridDto getAvailabilityGrid(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new RoomException.InvalidDateRangeException("'to' must not be before 'from'");
+        }
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > MAX_GRID_DAYS) {
+            throw new RoomException.InvalidDateRangeException("Availability grid is limited to " + MAX_GRID_DAYS + " days");
+        }
+
+        List<Room> rooms = roomRepository.findAll(Sort.by("roomNumber").ascending());
+        List<BookingRepository.BookingIntervalView> intervals = bookingRepository.findActiveIntervalsOverlapping(
+                from.atStartOfDay(),
+                to.atTime(LocalTime.MAX)
+        );
+
+        Map<Long, BitSet> occupancyByRoom = new HashMap<>();
+        for (BookingRepository.BookingIntervalView interval : intervals) {
+            LocalDateTime end = interval.getActualCheckOutTime() != null
+                    ? interval.getActualCheckOutTime()
+                    : interval.getCheckOutDate();
+            int firstDay = (int) Math.max(0, ChronoUnit.DAYS.between(from, interval.getCheckInDate().toLocalDate()));
+            int lastDay = (int) Math.min(days - 1, ChronoUnit.DAYS.between(from, end.toLocalDate()));
+            if (firstDay <= lastDay) {
+                occupancyByRoom.computeIfAbsent(interval.getRoomId(), id -> new BitSet(days))
+                        .set(firstDay, lastDay + 1);
+            }
+        }
+
+        List<RoomAvailabilityDto> rows = new ArrayList<>(rooms.size());
+        for (Room room : rooms) {
+            BitSet occupied = occupancyByRoom.getOrDefault(room.getId(), new BitSet(days));
+            StringBuilder occupancy = new StringBuilder(days);
+            for (int day = 0; day < days; day++) {
+                occupancy.append(occupied.get(day) ? '1' : '0');
+            }
+            rows.add(new RoomAvailabilityDto(
+                    room.getId(),
+                    room.getRoomNumber(),
+                    room.getRoomType(),
+                    room.getLocation(),
+                    occupancy.toString(),
+                    days - occupied.cardinality()
+            ));
+        }
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        String details = "Retrieved availability grid: from=" + from +
+                ", to=" + to +
+                ", rooms=" + rooms.size() +
+                ", bookings=" + intervals.size();
+
+        auditLogService.log(
+                username,
+                "QUERY",
+                "Room",
+                null,
+                details
+        );
+        return new RoomAvailabilityGridDto(from, to, days, rows);
     }
 
 
+    private Map<Long, List<PricingEngine.Rate>> displayRates(List<Room> rooms, RoomFilterRequest filter) {
+        boolean hasStay = filter.getDesiredCheckIn() != null && filter.getDesiredCheckOut() != null;
+        return pricingEngine.displayRates(
+                rooms.stream().map(Room::getId).toList(),
+                hasStay ? filter.getDesiredCheckIn().toLocalDate() : null,
+                hasStay ? filter.getDesiredCheckOut().toLocalDate() : null
+        );
+    }
+
     private List<Predicate> buildRoomPredicates(RoomFilterRequest filter, CriteriaBuilder cb, Root<Room> root, CriteriaQuery<?> query) {
         List<Predicate> predicates = new ArrayList<>();
 
@@ -0,0 +1,39 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+CREATE OR REPLACE FUNCTION f_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+    AS 'SELECT public.unaccent(''public.unaccent'', $1)';
+
+ALTER TABLE booking
+    ADD COLUMN IF NOT EXISTS stay_period tsrange
+    GENERATED ALWAYS AS (tsrange(check_in_date, COALESCE(actual_check_out_time, check_out_date), '[]')) STORED;
+
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''booking_no_overlap'') THEN
+        ALTER TABLE booking
+            ADD CONSTRAINT booking_no_overlap
+            EXCLUDE USING gist (room_id WITH =, stay_period WITH &&);
+    END IF;
+EXCEPTION
+    WHEN exclusion_violation THEN
+        RAISE EXCEPTION ''booking_no_overlap cannot be created, overlapping bookings (id/id) in the same room: %'',
+            (SELECT string_agg(pair, '', '')
+             FROM (SELECT a.id || ''/'' || b.id AS pair
+                   FROM booking a
+                   JOIN booking b ON b.room_id = a.room_id AND b.id > a.id AND b.stay_period && a.stay_period
+                   ORDER BY a.id, b.id
+                   LIMIT 100) overlapping)
+            USING ERRCODE = ''exclusion_violation'',
+                  HINT = ''Correct the dates or room of one booking in each pair, then restart.'';
+END
+';
+
+CREATE INDEX IF NOT EXISTS idx_booking_guest_name_trgm
+    ON booking USING gin (f_unaccent(lower(guest_full_name)) gin_trgm_ops);
+
+UPDATE booking SET version = 0 WHERE version IS NULL;
+UPDATE invoice SET version = 0 WHERE version IS NULL;
+UPDATE room SET version = 0 WHERE version IS NULL;
@@ -4,23 +4,36 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import net.java.hms_backend.config.JwtUtil;
 import net.java.hms_backend.dto.BookingDto;
 import net.java.hms_backend.entity.Booking;
+import net.java.hms_backend.entity.IdempotencyRecord;
 import net.java.hms_backend.entity.Role;
 import net.java.hms_backend.entity.Room;
 import net.java.hms_backend.entity.User;
 import net.java.hms_backend.repository.*;
+import net.java.hms_backend.service.BookingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -40,6 +53,9 @@ class BookingControllerTest {
     @Autowired private PasswordEncoder passwordEncoder;
     @Autowired private BookingRepository bookingRepository;
     @Autowired private NotificationRepository notificationRepository;
+    @Autowired private InvoiceRepository invoiceRepository;
+    @Autowired private BookingService bookingService;
+    @Autowired private IdempotencyRecordRepository idempotencyRecordRepository;
 
     private String adminToken;
     private String accountantToken;
@@ -48,6 +64,7 @@ class BookingControllerTest {
     @BeforeEach
     void setup() {
         notificationRepository.deleteAll();
+        invoiceRepository.deleteAll();
         bookingRepository.deleteAll();
         roomRepository.deleteAll();
         userRepository.deleteAll();
@@ -500,4 +517,479 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.message").value("Invalid booking type"));
     }
 
+    @Test
+    void testCreateBookingInSlotFreedByUpdate_shouldReturn200() throws Exception {
+        Booking booking = new Booking();
+        booking.setGuestFullName("Nguyễn Văn A");
+        booking.setGuestIdNumber("123456789");
+        booking.setGuestNationality("Việt Nam");
+        booking.setRoom(testRoom);
+        booking.setCheckInDate(LocalDateTime.now().plusDays(1));
+        booking.setCheckOutDate(LocalDateTime.now().plusDays(3));
+        booking.setBookingType("DAILY");
+        booking.setStatus("CONFIRMED");
+        booking.setNumberOfGuests(2);
+        bookingRepository.save(booking);
+
+        BookingDto moved = createSampleBookingDto();
+        moved.setCheckInDate(LocalDateTime.now().plusDays(10));
+        moved.setCheckOutDate(LocalDateTime.now().plusDays(12));
+
+        mockMvc.perform(put("/api/bookings/" + booking.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(moved)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/bookings")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createSampleBookingDto())))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/bookings")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(moved)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testSaveOverlappingBookingDirectly_shouldViolateConstraint() {
+        Booking booking = new Booking();
+        booking.setGuestFullName("Nguyễn Văn A");
+        booking.setGuestIdNumber("123456789");
+        booking.setRoom(testRoom);
+        booking.setCheckInDate(LocalDateTime.now().plusDays(1));
+        booking.setCheckOutDate(LocalDateTime.now().plusDays(3));
+        booking.setBookingType("DAILY");
+        booking.setStatus("CONFIRMED");
+        booking.setNumberOfGuests(2);
+        bookingRepository.save(booking);
+
+        Booking overlapping = new Booking();
+        overlapping.setGuestFullName("Trần Thị B");
+        overlapping.setGuestIdNumber("987654321");
+        overlapping.setRoom(testRoom);
+        overlapping.setCheckInDate(LocalDateTime.now().plusDays(2));
+        overlapping.setCheckOutDate(LocalDateTime.now().plusDays(4));
+        overlapping.setBookingType("DAILY");
+        overlapping.setStatus("CONFIRMED");
+        overlapping.setNumberOfGuests(1);
+
+        assertThrows(DataIntegrityViolationException.class, () -> bookingRepository.save(overlapping));
+    }
+
+    @Test
+    void testAdminCanCreateGroupBooking_shouldReturn200() throws Exception {
+        Room secondRoom = new Room();
+        secondRoom.setRoomNumber(102);
+        secondRoom.setRoomType("DELUXE");
+        secondRoom.setStatus("AVAILABLE");
+        secondRoom.setMaxOccupancy(4);
+        roomRepository.save(secondRoom);
+
+        BookingDto first = createSampleBookingDto();
+        BookingDto second = createSampleBookingDto();
+        second.setRoomNumber(102);
+
+        mockMvc.perform(post("/api/bookings/batch")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(first, second))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").isNumber())
+                .andExpect(jsonPath("$[1].roomNumber").value(102));
+
+        mockMvc.perform(post("/api/bookings")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(second)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testGroupBookingWithConflict_shouldRejectWholeGroup() throws Exception {
+        Room secondRoom = new Room();
+        secondRoom.setRoomNumber(102);
+        secondRoom.setRoomType("DELUXE");
+        secondRoom.setStatus("AVAILABLE");
+        secondRoom.setMaxOccupancy(4);
+        roomRepository.save(secondRoom);
+
+        BookingDto first = createSampleBookingDto();
+        first.setRoomNumber(102);
+        BookingDto second = createSampleBookingDto();
+        BookingDto overlapping = createSampleBookingDto();
+        overlapping.setCheckInDate(LocalDateTime.now().plusDays(2));
+        overlapping.setCheckOutDate(LocalDateTime.now().plusDays(5));
+
+        mockMvc.perform(post("/api/bookings/batch")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(first, second, overlapping))))
+                .andExpect(status().isConflict());
+
+        assertEquals(0, bookingRepository.count());
+    }
+
+    @Test
+    void testScrollBookings_shouldFollowCursorToLastPage() throws Exception {
+        BookingDto first = createSampleBookingDto();
+        BookingDto second = createSampleBookingDto();
+        second.setCheckInDate(LocalDateTime.now().plusDays(5));
+        second.setCheckOutDate(LocalDateTime.now().plusDays(6));
+        BookingDto third = createSampleBookingDto();
+        third.setCheckInDate(LocalDateTime.now().plusDays(8));
+        third.setCheckOutDate(LocalDateTime.now().plusDays(9));
+
+        mockMvc.perform(post("/api/bookings/batch")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(first, second, third))))
+                .andExpect(status().isOk());
+
+        String firstPage = mockMvc.perform(get("/api/bookings/scroll")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("size", "2")
+                        .param("includeTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").isNumber())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andReturn().getResponse().getContentAsString();
+
+        long cursor = objectMapper.readTree(firstPage).get("nextCursor").asLong();
+
+        mockMvc.perform(get("/api/bookings/scroll")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("after", String.valueOf(cursor))
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void testScrollBookingsWithInvalidSize_shouldReturn400AndCapLargeSizes() throws Exception {
+        mockMvc.perform(post("/api/bookings")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createSampleBookingDto())))
+                .andExpect(status().isOk());
+
+        for (String size : List.of("0", "-1")) {
+            mockMvc.perform(get("/api/bookings/scroll")
+                            .header("Authorization", "Bearer " + adminToken)
+                            .param("size", size))
+                    .andExpect(status().isBadRequest());
+        }
+
+        mockMvc.perform(get("/api/bookings/scroll")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("size", "1000000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(200))
+                .andExpect(jsonPath("$.content.length()").value(1));
+    }
+
+    @Test
+    void testSearchByGuestName_shouldIgnoreAccentsAndRankBySimilarity() throws Exception {
+        BookingDto nguyen = createSampleBookingDto();
+        nguyen.setGuestFullName("Nguyễn Văn Đức");
+        BookingDto nguyenThi = createSampleBookingDto();
+        nguyenThi.setGuestFullName("Nguyễn Thị Hoa");
+        nguyenThi.setCheckInDate(LocalDateTime.now().plusDays(5));
+        nguyenThi.setCheckOutDate(LocalDateTime.now().plusDays(6));
+        BookingDto tran = createSampleBookingDto();
+        tran.setGuestFullName("Trần Bình");
+        tran.setCheckInDate(LocalDateTime.now().plusDays(8));
+        tran.setCheckOutDate(LocalDateTime.now().plusDays(9));
+
+        mockMvc.perform(post("/api/bookings/batch")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(nguyen, nguyenThi, tran))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/bookings/search")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("name", "nguyen van duc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].guestFullName").value("Nguyễn Văn Đức"))
+                .andExpect(jsonPath("$[?(@.guestFullName == 'Trần Bình')]").isEmpty());
+
+        mockMvc.perform(get("/api/bookings/search")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("name", "  "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testExportBookings_shouldStreamNdjsonAndCsv() throws Exception {
+        BookingDto first = createSampleBookingDto();
+        first.setNotes("Late arrival, \"VIP\"");
+        BookingDto second = createSampleBookingDto();
+        second.setCheckInDate(LocalDateTime.now().plusDays(5));
+        second.setCheckOutDate(LocalDateTime.now().plusDays(6));
+        second.setStatus("CANCELLED");
+
+        mockMvc.perform(post("/api/bookings/batch")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(first, second))))
+                .andExpect(status().isOk());
+
+        MvcResult ndjson = mockMvc.perform(post("/api/bookings/export")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\": \"CONFIRMED\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String lines = mockMvc.perform(asyncDispatch(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertEquals(1, lines.lines().count());
+        assertEquals(101, objectMapper.readTree(lines.lines().findFirst().orElseThrow()).get("roomNumber").asInt());
+
+        MvcResult csv = mockMvc.perform(post("/api/bookings/export")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("format", "csv")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String rows = mockMvc.perform(asyncDispatch(csv))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertEquals(3, rows.lines().count());
+        assertTrue(rows.contains("\"Late arrival, \"\"VIP\"\"\""));
+
+        mockMvc.perform(post("/api/bookings/export")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("format", "xml")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testExportBookings_shouldSelectTheSameBookingsAsFilter() throws Exception {
+        BookingDto first = createSampleBookingDto();
+        BookingDto second = createSampleBookingDto();
+        second.setGuestFullName("Trần Thị B");
+        second.setCheckInDate(LocalDateTime.now().plusDays(5));
+        second.setCheckOutDate(LocalDateTime.now().plusDays(6));
+        second.setStatus("CANCELLED");
+        BookingDto third = createSampleBookingDto();
+        third.setGuestFullName("nguyễn văn c");
+        third.setCheckInDate(LocalDateTime.now().plusDays(10));
+        third.setCheckOutDate(LocalDateTime.now().plusDays(12));
+        third.setBookingType("HOURLY");
+
+        mockMvc.perform(post("/api/bookings/batch")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(first, second, third))))
+                .andExpect(status().isOk());
+
+        String from = LocalDateTime.now().plusDays(4).withNano(0).toString();
+        List<String> filters = List.of(
+                "{}",
+                "{\"guestFullName\": \"NGUYỄN\"}",
+                "{\"status\": \"CONFIRMED\", \"bookingType\": \"DAILY\"}",
+                "{\"roomId\": " + testRoom.getRoomNumber() + ", \"checkInDateFrom\": \"" + from + "\"}",
+                "{\"roomId\": 999}"
+        );
+        for (String filter : filters) {
+            String page = mockMvc.perform(post("/api/bookings/filter")
+                            .header("Authorization", "Bearer " + adminToken)
+                            .param("size", "100")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(filter))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+            List<Long> filtered = objectMapper.readTree(page).get("content").findValues("id").stream()
+                    .map(id -> id.asLong())
+                    .sorted()
+                    .toList();
+
+            MvcResult export = mockMvc.perform(post("/api/bookings/export")
+                            .header("Authorization", "Bearer " + adminToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(filter))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String lines = mockMvc.perform(asyncDispatch(export))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+            List<Long> exported = lines.lines()
+                    .map(line -> {
+                        try {
+                            return objectMapper.readTree(line).get("id").asLong();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .toList();
+
+            assertEquals(filtered, exported, filter);
+        }
+    }
+
+    @Test
+    void testCheckoutReminder_shouldNotifyEveryReceptionistForEveryBooking() {
+        Role receptionistRole = roleRepository.save(new Role("RECEPTIONIST"));
+        for (String email : List.of("reception1@example.com", "reception2@example.com")) {
+            User receptionist = new User();
+            receptionist.setEmail(email);
+            receptionist.setPassword(passwordEncoder.encode("123456"));
+            receptionist.setRoles(List.of(receptionistRole));
+            userRepository.save(receptionist);
+        }
+
+        Room secondRoom = new Room();
+        secondRoom.setRoomNumber(102);
+        secondRoom.setRoomType("DELUXE");
+        secondRoom.setStatus("AVAILABLE");
+        secondRoom.setMaxOccupancy(4);
+        roomRepository.save(secondRoom);
+
+        for (Room room : List.of(testRoom, secondRoom)) {
+            Booking booking = new Booking();
+            booking.setGuestFullName("Guest " + room.getRoomNumber());
+            booking.setGuestIdNumber("ID" + room.getRoomNumber());
+            booking.setRoom(room);
+            booking.setCheckInDate(LocalDateTime.now().minusDays(1));
+            booking.setCheckOutDate(LocalDateTime.now().plusMinutes(30));
+            booking.setBookingType("DAILY");
+            booking.setStatus("CHECKED_IN");
+            booking.setNumberOfGuests(1);
+            bookingRepository.save(booking);
+        }
+
+        bookingService.notifyRoomsAboutUpcomingCheckout();
+
+        assertEquals(4, notificationRepository.count());
+        assertEquals(2, notificationRepository.findByRecipientEmailOrderByCreatedAtDesc("reception1@example.com").size());
+    }
+
+    @Test
+    void testCreateBookingRetriedWithIdempotencyKey_shouldNotConflict() throws Exception {
+        String key = UUID.randomUUID().toString();
+        BookingDto dto = createSampleBookingDto();
+
+        String created = mockMvc.perform(post("/api/bookings")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long bookingId = objectMapper.readTree(created).get("id").asLong();
+
+        mockMvc.perform(post("/api/bookings")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(bookingId));
+
+        mockMvc.perform(post("/api/bookings")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isConflict());
+
+        assertEquals(1, bookingRepository.count());
+    }
+
+    @Test
+    void testCreateBookingWithKeyStoredByAnotherInstance_shouldReplayWithoutCreating() throws Exception {
+        String key = UUID.randomUUID().toString();
+        BookingDto dto = createSampleBookingDto();
+
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey("admin@example.com:POST /api/bookings:" + key);
+        record.setRequestHash(HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(dto))));
+        record.setStatusCode(200);
+        record.setResponseBody("{\"id\":4242,\"guestFullName\":\"Nguyễn Văn A\"}");
+        record.setCreatedAt(LocalDateTime.now());
+        record.setExpiresAt(LocalDateTime.now().plusHours(1));
+        idempotencyRecordRepository.save(record);
+
+        mockMvc.perform(post("/api/bookings")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(4242));
+
+        assertEquals(0, bookingRepository.count());
+    }
+
+    @Test
+    void testCreateBookingFailingWithIdempotencyKey_shouldNotStoreKey() throws Exception {
+        String key = UUID.randomUUID().toString();
+        BookingDto dto = createSampleBookingDto();
+        dto.setRoomNumber(9999);
+
+        mockMvc.perform(post("/api/bookings")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isNotFound());
+
+        assertTrue(idempotencyRecordRepository.findByIdempotencyKey("admin@example.com:POST /api/bookings:" + key).isEmpty());
+    }
+
+    @Test
+    void testUpdateBookingWithStaleIfMatch_shouldReturn412() throws Exception {
+        String created = mockMvc.perform(post("/api/bookings")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createSampleBookingDto())))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long bookingId = objectMapper.readTree(created).get("id").asLong();
+
+        mockMvc.perform(get("/api/bookings/" + bookingId)
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""));
+
+        BookingDto first = new BookingDto();
+        first.setGuestFullName("Nguyễn Văn B");
+        mockMvc.perform(put("/api/bookings/" + bookingId)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(first)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.version").value(1));
+
+        BookingDto second = new BookingDto();
+        second.setGuestFullName("Nguyễn Văn C");
+        mockMvc.perform(put("/api/bookings/" + bookingId)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(second)))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("Nguyễn Văn B", bookingRepository.findById(bookingId).orElseThrow().getGuestFullName());
+    }
+
 }
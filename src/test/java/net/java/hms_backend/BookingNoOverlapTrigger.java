@@ -0,0 +1,70 @@
+package net.java.hms_backend;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * H2 stand-in for the PostgreSQL {@code booking_no_overlap} exclusion constraint.
+ */
+public class BookingNoOverlapTrigger implements Trigger {
+
+    private int idColumn;
+    private int roomIdColumn;
+    private int checkInColumn;
+    private int checkOutColumn;
+    private int actualCheckOutColumn;
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName,
+                     boolean before, int type) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT COLUMN_NAME, ORDINAL_POSITION FROM INFORMATION_SCHEMA.COLUMNS " +
+                        "WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ?")) {
+            ps.setString(1, schemaName);
+            ps.setString(2, tableName);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int index = rs.getInt(2) - 1;
+                    switch (rs.getString(1).toUpperCase()) {
+                        case "ID" -> idColumn = index;
+                        case "ROOM_ID" -> roomIdColumn = index;
+                        case "CHECK_IN_DATE" -> checkInColumn = index;
+                        case "CHECK_OUT_DATE" -> checkOutColumn = index;
+                        case "ACTUAL_CHECK_OUT_TIME" -> actualCheckOutColumn = index;
+                        default -> { }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+        Object roomId = newRow[roomIdColumn];
+        Object checkIn = newRow[checkInColumn];
+        Object checkOut = newRow[actualCheckOutColumn] != null ? newRow[actualCheckOutColumn] : newRow[checkOutColumn];
+        if (roomId == null || checkIn == null || checkOut == null) {
+            return;
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT COUNT(*) FROM booking " +
+                        "WHERE room_id = ? AND id <> ? AND check_in_date <= ? " +
+                        "AND COALESCE(actual_check_out_time, check_out_date) >= ?")) {
+            ps.setObject(1, roomId);
+            ps.setObject(2, newRow[idColumn] != null ? newRow[idColumn] : -1L);
+            ps.setObject(3, checkOut);
+            ps.setObject(4, checkIn);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next() && rs.getLong(1) > 0) {
+                    throw new SQLException(
+                            "conflicting key value violates exclusion constraint \"booking_no_overlap\"", "23P01");
+                }
+            }
+        }
+    }
+}
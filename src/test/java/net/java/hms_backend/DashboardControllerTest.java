@@ -0,0 +1,552 @@
+package net.java.hms_backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.java.hms_backend.config.JwtUtil;
+import net.java.hms_backend.dto.DashboardDto;
+import net.java.hms_backend.dto.BookingDto;
+import net.java.hms_backend.dto.InvoiceDto;
+import net.java.hms_backend.entity.*;
+import net.java.hms_backend.exception.DashboardException;
+import net.java.hms_backend.repository.*;
+import net.java.hms_backend.service.DailyStatsService;
+import net.java.hms_backend.service.DashboardQueryRunner;
+import net.java.hms_backend.service.DashboardSummaryCache;
+import net.java.hms_backend.service.DegradationGuard;
+import net.java.hms_backend.service.MetricRollupStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.hasItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DashboardControllerTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private JwtUtil jwtUtil;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private InvoiceRepository invoiceRepository;
+    @Autowired private NotificationRepository notificationRepository;
+    @Autowired private DailyStatsService dailyStatsService;
+    @Autowired private DashboardSummaryCache dashboardSummaryCache;
+    @Autowired private DashboardQueryRunner dashboardQueryRunner;
+    @Autowired private MetricRollupStore metricRollupStore;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private DegradationGuard degradationGuard;
+    @Autowired private ObjectMapper objectMapper;
+
+    private String adminToken;
+    private String receptionistToken;
+    private Invoice pendingInvoice;
+    private Invoice paidCashInvoice;
+
+    @BeforeEach
+    void setup() {
+        notificationRepository.deleteAll();
+        invoiceRepository.deleteAll();
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+
+        Role adminRole = roleRepository.save(new Role("ADMIN"));
+        Role receptionistRole = roleRepository.save(new Role("RECEPTIONIST"));
+
+        User admin = new User();
+        admin.setEmail("admin@example.com");
+        admin.setPassword(passwordEncoder.encode("123456"));
+        admin.setRoles(List.of(adminRole));
+
+        User receptionist = new User();
+        receptionist.setEmail("receptionist@example.com");
+        receptionist.setPassword(passwordEncoder.encode("123456"));
+        receptionist.setRoles(List.of(receptionistRole));
+
+        userRepository.saveAll(List.of(admin, receptionist));
+        adminToken = jwtUtil.generateToken(admin);
+        receptionistToken = jwtUtil.generateToken(receptionist);
+
+        Room room = new Room();
+        room.setRoomNumber(101);
+        room.setMaxOccupancy(4);
+        room.setRoomType("Deluxe");
+        room.setStatus("Available");
+        roomRepository.save(room);
+
+        Booking current = saveBooking(room, "CHECKED IN", LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(3), 2);
+        current.setActualCheckInTime(LocalDateTime.now().minusDays(1));
+        bookingRepository.save(current);
+        Booking cancelled = saveBooking(room, "CANCELLED", LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(6), 1);
+        Booking past = saveBooking(room, "CHECKED OUT", LocalDateTime.now().minusDays(20), LocalDateTime.now().minusDays(18), 3);
+
+        paidCashInvoice = saveInvoice(current, "PAID", "CASH", 1000, 1000);
+        pendingInvoice = saveInvoice(cancelled, "PENDING", "CARD", 800, 300);
+        saveInvoice(past, "PAID", "CARD", 600, 600);
+
+        dailyStatsService.rebuild();
+    }
+
+    private Booking saveBooking(Room room, String status, LocalDateTime checkIn, LocalDateTime checkOut, int guests) {
+        Booking booking = new Booking();
+        booking.setGuestFullName("Guest " + status);
+        booking.setGuestIdNumber("ID-" + status);
+        booking.setRoom(room);
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkOut);
+        booking.setBookingType("DAILY");
+        booking.setStatus(status);
+        booking.setNumberOfGuests(guests);
+        return bookingRepository.save(booking);
+    }
+
+    private Invoice saveInvoice(Booking booking, String status, String paymentMethod, long amount, long paid) {
+        Invoice invoice = new Invoice(null, BigDecimal.valueOf(amount), BigDecimal.valueOf(paid), status,
+                LocalDateTime.now().minusHours(1), LocalDateTime.now().plusDays(7), paymentMethod, null, booking);
+        return invoiceRepository.save(invoice);
+    }
+
+    @Test
+    void testAdminCanGetDashboardSummary_shouldAggregateKpis() throws Exception {
+        String today = LocalDate.now().toString();
+        String yesterday = LocalDate.now().minusDays(1).toString();
+
+        mockMvc.perform(get("/api/dashboard/summary")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("days", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalBookings").value(3))
+                .andExpect(jsonPath("$.cancelledBookings").value(1))
+                .andExpect(jsonPath("$.activeBookings").value(1))
+                .andExpect(jsonPath("$.checkedInBookings").value(1))
+                .andExpect(jsonPath("$.bookingsPerStatus.CANCELLED").value(1))
+                .andExpect(jsonPath("$.bookingsPerDayLast7Days['" + yesterday + "']").value(1))
+                .andExpect(jsonPath("$.bookingsPerDayLast7Days.length()").value(7))
+                .andExpect(jsonPath("$.totalInvoices").value(3))
+                .andExpect(jsonPath("$.paidInvoices").value(2))
+                .andExpect(jsonPath("$.pendingInvoices").value(1))
+                .andExpect(jsonPath("$.totalRevenueGenerated").value(1600))
+                .andExpect(jsonPath("$.totalOutstandingAmount").value(500))
+                .andExpect(jsonPath("$.invoicesPerStatus.PAID").value(2))
+                .andExpect(jsonPath("$.revenuePerPaymentMethod.CASH").value(1000))
+                .andExpect(jsonPath("$.revenuePerPaymentMethod.CARD").value(600))
+                .andExpect(jsonPath("$.dailyRevenueLast7Days['" + today + "']").value(1600));
+    }
+
+    @Test
+    void testDashboardSummary_shouldCountUndatedRowsInTotalsOnly() throws Exception {
+        Room room = roomRepository.findAll().getFirst();
+        Booking undated = saveBooking(room, "CONFIRMED", null, null, 2);
+        invoiceRepository.save(new Invoice(null, BigDecimal.valueOf(200), BigDecimal.valueOf(200), "PAID",
+                null, null, "CASH", null, undated));
+        dailyStatsService.rebuild();
+
+        mockMvc.perform(get("/api/dashboard/summary")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("days", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalBookings").value(4))
+                .andExpect(jsonPath("$.bookingsPerStatus.CONFIRMED").value(1))
+                .andExpect(jsonPath("$.totalInvoices").value(4))
+                .andExpect(jsonPath("$.paidInvoices").value(3))
+                .andExpect(jsonPath("$.totalRevenueGenerated").value(1800))
+                .andExpect(jsonPath("$.revenuePerPaymentMethod.CASH").value(1200))
+                .andExpect(jsonPath("$.dailyRevenueLast7Days['" + LocalDate.now() + "']").value(1600));
+    }
+
+    @Test
+    void testDashboardSummary_shouldReflectServiceWritesWithoutRebuild() throws Exception {
+        mockMvc.perform(get("/api/dashboard/summary")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("days", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalBookings").value(3));
+
+        BookingDto booking = new BookingDto();
+        booking.setGuestFullName("Walk-in Guest");
+        booking.setGuestIdNumber("ID-WALKIN");
+        booking.setRoomNumber(101);
+        booking.setCheckInDate(LocalDateTime.now().plusDays(10));
+        booking.setCheckOutDate(LocalDateTime.now().plusDays(11));
+        booking.setBookingType("DAILY");
+        booking.setStatus("CONFIRMED");
+        booking.setNumberOfGuests(2);
+
+        mockMvc.perform(post("/api/bookings")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(booking)))
+                .andExpect(status().isOk());
+
+        InvoiceDto payment = new InvoiceDto();
+        payment.setStatus("PAID");
+        payment.setPaidAmount(BigDecimal.valueOf(800));
+
+        mockMvc.perform(put("/api/invoices/" + pendingInvoice.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(payment)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/dashboard/summary")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("days", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalBookings").value(4))
+                .andExpect(jsonPath("$.bookingsPerStatus.CONFIRMED").value(1))
+                .andExpect(jsonPath("$.paidInvoices").value(3))
+                .andExpect(jsonPath("$.pendingInvoices").value(0))
+                .andExpect(jsonPath("$.totalRevenueGenerated").value(2400))
+                .andExpect(jsonPath("$.totalOutstandingAmount").value(0))
+                .andExpect(jsonPath("$.revenuePerPaymentMethod.CARD").value(1400));
+    }
+
+    @Test
+    void testRevenuePerPaymentMethod_shouldMoveWithPaymentMethodChange() throws Exception {
+        InvoiceDto change = new InvoiceDto();
+        change.setPaymentMethod("TRANSFER");
+
+        mockMvc.perform(put("/api/invoices/" + paidCashInvoice.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(change)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/dashboard/summary")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("days", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.revenuePerPaymentMethod.TRANSFER").value(1000))
+                .andExpect(jsonPath("$.revenuePerPaymentMethod.CARD").value(600))
+                .andExpect(jsonPath("$.revenuePerPaymentMethod.CASH").doesNotExist())
+                .andExpect(jsonPath("$.totalRevenueGenerated").value(1600));
+    }
+
+    @Test
+    void testDashboardSummaryCache_shouldCoalesceConcurrentMisses() throws Exception {
+        int days = 4242;
+        int viewers = 8;
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(viewers);
+        try {
+            List<CompletableFuture<DashboardDto>> results = new ArrayList<>();
+            for (int i = 0; i < viewers; i++) {
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return dashboardSummaryCache.get(days, () -> {
+                        computations.incrementAndGet();
+                        try {
+                            Thread.sleep(200);
+                        } catch (InterruptedException e) {
+                            throw new IllegalStateException(e);
+                        }
+                        return new DashboardDto();
+                    });
+                }, executor));
+            }
+            start.countDown();
+
+            DashboardDto first = results.get(0).get();
+            for (CompletableFuture<DashboardDto> result : results) {
+                assertSame(first, result.get());
+            }
+            assertEquals(1, computations.get());
+        } finally {
+            executor.shutdownNow();
+            dashboardSummaryCache.invalidate();
+        }
+    }
+
+    @Test
+    void testPrewarmedWindows_shouldServeStandardAndComposedWindowsFromMemory() throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (dashboardSummaryCache.pinned() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertNotNull(dashboardSummaryCache.pinned());
+        long computed = summaryComputations();
+
+        mockMvc.perform(get("/api/dashboard/summary")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("days", "30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.generatedAt").exists())
+                .andExpect(jsonPath("$.bookingsPerDayLast7Days.length()").value(30));
+
+        mockMvc.perform(get("/api/dashboard/summary")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("days", "14"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalBookings").value(3))
+                .andExpect(jsonPath("$.bookingsPerDayLast7Days.length()").value(14))
+                .andExpect(jsonPath("$.dailyRevenueLast7Days['" + LocalDate.now() + "']").value(1600));
+
+        assertEquals(computed, summaryComputations());
+    }
+
+    private long summaryComputations() {
+        return dashboardQueryRunner.timings().stream()
+                .filter(timing -> DashboardQueryRunner.SUMMARY.equals(timing.getName()))
+                .mapToLong(timing -> timing.getCalls())
+                .sum();
+    }
+
+    @Test
+    void testDashboardMetrics_shouldReportEverySubQuery() throws Exception {
+        mockMvc.perform(get("/api/dashboard/summary")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("days", "30"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/dashboard/metrics")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name").value(hasItems(
+                        "summary", "window", "totals", "activeBookings", "upcomingCheckIns", "upcomingCheckOuts")));
+    }
+
+    @Test
+    void testOccupancyAnalytics_shouldComputeOccupancyAdrAndRevPar() throws Exception {
+        String today = LocalDate.now().toString();
+        String yesterday = LocalDate.now().minusDays(1).toString();
+
+        mockMvc.perform(get("/api/dashboard/analytics")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("from", yesterday)
+                        .param("to", today))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.days").value(2))
+                .andExpect(jsonPath("$.rooms").value(1))
+                .andExpect(jsonPath("$.total.availableRoomNights").value(2))
+                .andExpect(jsonPath("$.total.soldRoomNights").value(2))
+                .andExpect(jsonPath("$.total.revenue").value(500))
+                .andExpect(jsonPath("$.total.occupancyRate").value(1.0))
+                .andExpect(jsonPath("$.total.averageDailyRate").value(250))
+                .andExpect(jsonPath("$.total.revPar").value(250))
+                .andExpect(jsonPath("$.daily.length()").value(2))
+                .andExpect(jsonPath("$.byRoomType.Deluxe.soldRoomNights").value(2))
+                .andExpect(jsonPath("$.byLocation.UNSPECIFIED.revPar").value(250));
+    }
+
+    @Test
+    void testOccupancyAnalytics_withUnevenNightlyRate_shouldAddUpToTheInvoicedAmount() throws Exception {
+        Room room = new Room();
+        room.setRoomNumber(102);
+        room.setMaxOccupancy(2);
+        room.setRoomType("Standard");
+        room.setStatus("Available");
+        roomRepository.save(room);
+        Booking stay = saveBooking(room, "CONFIRMED", LocalDateTime.now().plusDays(10), LocalDateTime.now().plusDays(13), 1);
+        saveInvoice(stay, "PENDING", "CARD", 100, 0);
+
+        LocalDate from = LocalDate.now().plusDays(10);
+        mockMvc.perform(get("/api/dashboard/analytics")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("from", from.toString())
+                        .param("to", from.plusDays(2).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total.soldRoomNights").value(3))
+                .andExpect(jsonPath("$.total.revenue").value(100.0))
+                .andExpect(jsonPath("$.total.averageDailyRate").value(33.33))
+                .andExpect(jsonPath("$.daily[0].revenue").value(33.34))
+                .andExpect(jsonPath("$.daily[1].revenue").value(33.33))
+                .andExpect(jsonPath("$.daily[2].revenue").value(33.33))
+                .andExpect(jsonPath("$.byRoomType.Standard.revenue").value(100.0))
+                .andExpect(jsonPath("$.byRoomType.Deluxe.revenue").value(0.0));
+    }
+
+    @Test
+    void testOccupancyAnalytics_withRangeOverTwoYears_shouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/dashboard/analytics")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("from", LocalDate.now().minusYears(3).toString())
+                        .param("to", LocalDate.now().toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testTimeSeries_shouldAnswerDailyAndHourlyRangesFromRollups() throws Exception {
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+
+        mockMvc.perform(get("/api/dashboard/timeseries")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("metric", "REVENUE")
+                        .param("granularity", "DAY")
+                        .param("from", today.minusDays(30).toString())
+                        .param("to", today.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.values.length()").value(31))
+                .andExpect(jsonPath("$.values['" + today + "']").value(1600))
+                .andExpect(jsonPath("$.total").value(1600));
+
+        mockMvc.perform(get("/api/dashboard/timeseries")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("metric", "BOOKINGS")
+                        .param("granularity", "HOUR")
+                        .param("from", today.minusDays(2).toString())
+                        .param("to", today.plusDays(7).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.values.length()").value(9 * 24 + 1))
+                .andExpect(jsonPath("$.total").value(2));
+    }
+
+    @Test
+    void testRollupRebuild_shouldReplayChangesCommittedWhileItRuns() {
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        MetricRollupStore.Rebuild rebuild = metricRollupStore.beginRebuild(() -> { });
+
+        MetricRollupStore.Batch committed = metricRollupStore.batch();
+        committed.add(MetricRollupStore.Metric.BOOKINGS, today, 5);
+        metricRollupStore.applyAfterCommit(committed);
+        metricRollupStore.replaceAfterCommit(rebuild);
+
+        assertEquals(5, metricRollupStore.sum(MetricRollupStore.Metric.BOOKINGS,
+                MetricRollupStore.Granularity.DAY, today, today));
+    }
+
+    @Test
+    void testDashboardSummary_withWindowBeyondRollupLimit_shouldReadDailyStats() throws Exception {
+        int days = MetricRollupStore.MAX_POINTS + 1000;
+        String yesterday = LocalDate.now().minusDays(1).toString();
+        String today = LocalDate.now().toString();
+
+        mockMvc.perform(get("/api/dashboard/summary")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("days", String.valueOf(days)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookingsPerDayLast7Days.length()").value(days))
+                .andExpect(jsonPath("$.bookingsPerDayLast7Days['" + yesterday + "']").value(1))
+                .andExpect(jsonPath("$.dailyRevenueLast7Days['" + today + "']").value(1600));
+    }
+
+    @Test
+    void testDashboardEvents_shouldPushInvoicePaidAfterCommit() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/dashboard/events")
+                        .header("Authorization", "Bearer " + receptionistToken)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        InvoiceDto payment = new InvoiceDto();
+        payment.setStatus("PAID");
+        payment.setPaidAmount(BigDecimal.valueOf(800));
+
+        mockMvc.perform(put("/api/invoices/" + pendingInvoice.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(payment)))
+                .andExpect(status().isOk());
+
+        String expected = "\"invoiceId\":" + pendingInvoice.getId();
+        long deadline = System.currentTimeMillis() + 5000;
+        String body = stream.getResponse().getContentAsString();
+        while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            body = stream.getResponse().getContentAsString();
+        }
+        assertTrue(body.contains("event:INVOICE_PAID"), body);
+        assertTrue(body.contains(expected), body);
+    }
+
+    @Test
+    void testDegradedReload_shouldOnlyOpenATransactionWhenAskedTo() throws Exception {
+        CompletableFuture<Boolean> plainReload = new CompletableFuture<>();
+        CompletableFuture<Boolean> transactionalReload = new CompletableFuture<>();
+        degradationGuard.read("test:plain", () -> 1);
+        degradationGuard.readInTransaction("test:transactional", () -> 1);
+
+        degradationGuard.setMode(DegradationGuard.Mode.FORCED);
+        try {
+            assertEquals(1, degradationGuard.read("test:plain", () -> {
+                plainReload.complete(TransactionSynchronizationManager.isActualTransactionActive());
+                return 2;
+            }));
+            assertEquals(1, degradationGuard.readInTransaction("test:transactional", () -> {
+                transactionalReload.complete(TransactionSynchronizationManager.isActualTransactionActive());
+                return 2;
+            }));
+
+            assertEquals(false, plainReload.get(5, TimeUnit.SECONDS));
+            assertEquals(true, transactionalReload.get(5, TimeUnit.SECONDS));
+        } finally {
+            degradationGuard.setMode(DegradationGuard.Mode.AUTO);
+        }
+    }
+
+    @Test
+    void testDashboardQuery_runningPastTimeout_shouldFailInTheDatabaseCall() throws Exception {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        DashboardQueryRunner runner = new DashboardQueryRunner(executor, transactionManager, Duration.ofSeconds(1));
+        CompletableFuture<RuntimeException> outcome = new CompletableFuture<>();
+        try {
+            DashboardQueryRunner.Query<Long> query = runner.fork("slow", () -> {
+                try {
+                    Thread.sleep(1200);
+                    long count = roomRepository.count();
+                    outcome.complete(null);
+                    return count;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                } catch (RuntimeException e) {
+                    outcome.complete(e);
+                    throw e;
+                }
+            });
+
+            assertThrows(DashboardException.QueryTimeoutException.class, query::join);
+            assertNotNull(outcome.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testReceptionistCannotGetDashboardSummary_shouldReturn403() throws Exception {
+        mockMvc.perform(get("/api/dashboard/summary")
+                        .header("Authorization", "Bearer " + receptionistToken)
+                        .param("days", "7"))
+                .andExpect(status().isForbidden());
+    }
+}
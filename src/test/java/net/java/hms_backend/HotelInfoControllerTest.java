@@ -7,8 +7,10 @@ import net.java.hms_backend.entity.HotelInfo;
 import net.java.hms_backend.entity.Role;
 import net.java.hms_backend.entity.User;
 import net.java.hms_backend.repository.HotelInfoRepository;
+import net.java.hms_backend.repository.NotificationRepository;
 import net.java.hms_backend.repository.RoleRepository;
 import net.java.hms_backend.repository.UserRepository;
+import net.java.hms_backend.service.DegradationGuard;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +24,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalTime;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -37,13 +40,17 @@ class HotelInfoControllerTest {
     @Autowired private RoleRepository roleRepository;
     @Autowired private PasswordEncoder passwordEncoder;
     @Autowired private HotelInfoRepository hotelInfoRepository;
+    @Autowired private NotificationRepository notificationRepository;
+    @Autowired private DegradationGuard degradationGuard;
 
     private String adminToken;
     private String receptionistToken;
+    private HotelInfo hotel;
 
     @BeforeEach
     void setup() {
         hotelInfoRepository.deleteAll();
+        notificationRepository.deleteAll();
         userRepository.deleteAll();
         roleRepository.deleteAll();
 
@@ -65,7 +72,7 @@ class HotelInfoControllerTest {
 
         receptionistToken = jwtUtil.generateToken(receptionist);
 
-        HotelInfo hotel = new HotelInfo();
+        hotel = new HotelInfo();
         hotel.setName("HOTELIO");
         hotel.setAddress("123 Đường ABC, Quận 1, TP.HCM");
         hotel.setPhone("0123456789");
@@ -86,6 +93,76 @@ class HotelInfoControllerTest {
                 .andExpect(jsonPath("$.address").value("123 Đường ABC, Quận 1, TP.HCM"));
     }
 
+    @Test
+    void testGetHotelInfo_whenDegraded_shouldServeLastGoodResultAndRevalidate() throws Exception {
+        mockMvc.perform(get("/api/hotel-info")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Warning"))
+                .andExpect(jsonPath("$.name").value("HOTELIO"));
+
+        hotel.setName("HOTELIO RENAMED");
+        hotelInfoRepository.save(hotel);
+
+        degradationGuard.setMode(DegradationGuard.Mode.FORCED);
+        try {
+            mockMvc.perform(get("/api/hotel-info")
+                            .header("Authorization", "Bearer " + adminToken))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists("Warning"))
+                    .andExpect(header().exists("Age"))
+                    .andExpect(jsonPath("$.name").value("HOTELIO"));
+
+            long deadline = System.currentTimeMillis() + 5000;
+            String body = "";
+            while (!body.contains("HOTELIO RENAMED") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+                body = mockMvc.perform(get("/api/hotel-info")
+                                .header("Authorization", "Bearer " + adminToken))
+                        .andExpect(header().exists("Warning"))
+                        .andReturn().getResponse().getContentAsString();
+            }
+            assertTrue(body.contains("HOTELIO RENAMED"), body);
+        } finally {
+            degradationGuard.setMode(DegradationGuard.Mode.AUTO);
+        }
+    }
+
+    @Test
+    void testGetHotelInfo_whenDegradedAfterUpdate_shouldNotServeReplacedResult() throws Exception {
+        mockMvc.perform(get("/api/hotel-info")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("HOTELIO"));
+
+        HotelInfoDto updated = new HotelInfoDto();
+        updated.setName("HOTELIO UPDATED");
+        updated.setAddress("456 Đường XYZ, Quận 3, TP.HCM");
+        updated.setPhone("0987654321");
+        updated.setEmail("luxury@ngoc.com");
+        updated.setTaxCode("987654321");
+        updated.setNumberOfFloors(10);
+        updated.setCheckInTime(LocalTime.of(15, 0));
+        updated.setCheckOutTime(LocalTime.of(11, 0));
+
+        mockMvc.perform(put("/api/hotel-info")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updated)))
+                .andExpect(status().isOk());
+
+        degradationGuard.setMode(DegradationGuard.Mode.FORCED);
+        try {
+            mockMvc.perform(get("/api/hotel-info")
+                            .header("Authorization", "Bearer " + adminToken))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("Warning"))
+                    .andExpect(jsonPath("$.name").value("HOTELIO UPDATED"));
+        } finally {
+            degradationGuard.setMode(DegradationGuard.Mode.AUTO);
+        }
+    }
+
     @Test
     void testUpdateHotelInfo_shouldReturnUpdatedDto() throws Exception {
         HotelInfoDto updated = new HotelInfoDto();
@@ -2,9 +2,12 @@ package net.java.hms_backend;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import net.java.hms_backend.dto.InvoiceDto;
+import net.java.hms_backend.dto.RoomDto;
+import net.java.hms_backend.dto.RoomPriceDto;
 import net.java.hms_backend.entity.*;
 import net.java.hms_backend.repository.*;
 import net.java.hms_backend.config.JwtUtil;
+import net.java.hms_backend.service.InvoicePdfPipeline;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,11 +16,23 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,6 +52,7 @@ class InvoiceControllerTest {
     @Autowired private RoomRepository roomRepository;
     @Autowired private InvoiceRepository invoiceRepository;
     @Autowired private NotificationRepository notificationRepository;
+    @Autowired private InvoicePdfPipeline invoicePdfPipeline;
 
     private String adminToken;
     private String receptionistToken;
@@ -287,4 +303,233 @@ class InvoiceControllerTest {
                 .andExpect(jsonPath("$.message").value("Invoice already exists for booking ID: " + testInvoice.getBookingId()));
     }
 
+    @Test
+    void testCreateInvoiceRetriedWithIdempotencyKey_shouldReplayOriginalResponse() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        String created = mockMvc.perform(post("/api/invoices")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testInvoice)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long invoiceId = objectMapper.readTree(created).get("id").asLong();
+
+        mockMvc.perform(post("/api/invoices")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testInvoice)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(invoiceId));
+
+        testInvoice.setNotes("Changed on retry");
+        mockMvc.perform(post("/api/invoices")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testInvoice)))
+                .andExpect(status().isUnprocessableEntity());
+
+        assert invoiceRepository.count() == 1 : "Replayed request created another invoice";
+    }
+
+    @Test
+    void testCreateInvoice_shouldUseRoomPriceChangedAfterQuote() throws Exception {
+        Room room = roomRepository.findByRoomNumber(101).orElseThrow();
+
+        mockMvc.perform(get("/api/rooms/" + room.getId())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.prices[0].basePrice").value(500.0));
+
+        RoomPriceDto newPrice = new RoomPriceDto();
+        newPrice.setPriceType(PriceType.DAILY);
+        newPrice.setBasePrice(612.5);
+        RoomDto update = new RoomDto();
+        update.setPrices(List.of(newPrice));
+        mockMvc.perform(put("/api/rooms/" + room.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/invoices")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testInvoice)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.amount").value(1838));
+    }
+
+    @Test
+    void testGenerateInvoicePdf_shouldServeCachedCopyUntilInvoiceChanges() throws Exception {
+        Booking booking = bookingRepository.findAll().getFirst();
+        Invoice invoice = invoiceRepository.save(new Invoice(
+                null,
+                BigDecimal.valueOf(1500),
+                BigDecimal.valueOf(0),
+                "UNPAID",
+                LocalDateTime.now(),
+                LocalDateTime.now().plusDays(7),
+                "CASH",
+                "Cached PDF",
+                booking
+        ));
+
+        mockMvc.perform(post("/api/invoices/" + invoice.getId() + "/pdf/prerender")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isAccepted());
+
+        byte[] first = mockMvc.perform(get("/api/invoices/" + invoice.getId() + "/pdf")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] second = mockMvc.perform(get("/api/invoices/" + invoice.getId() + "/pdf")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assert Arrays.equals(first, second) : "Repeat download was rendered again";
+
+        invoice.setNotes("Changed after download");
+        invoiceRepository.save(invoice);
+
+        byte[] changed = mockMvc.perform(get("/api/invoices/" + invoice.getId() + "/pdf")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assert !Arrays.equals(first, changed) : "Changed invoice was served from the cache";
+    }
+
+    @Test
+    void testInvoicePdfCache_shouldKeepServedCopiesAndRerenderPrunedOnes() throws Exception {
+        Booking booking = bookingRepository.findAll().getFirst();
+        Invoice invoice = invoiceRepository.save(new Invoice(
+                null,
+                BigDecimal.valueOf(1500),
+                BigDecimal.valueOf(0),
+                "UNPAID",
+                LocalDateTime.now(),
+                LocalDateTime.now().plusDays(7),
+                "CASH",
+                "Pruned PDF",
+                booking
+        ));
+
+        InvoicePdfPipeline.RenderedPdf rendered = invoicePdfPipeline.fetch(invoice.getId());
+        FileTime written = FileTime.from(Instant.now().minus(Duration.ofDays(365)));
+        Files.setLastModifiedTime(rendered.file(), written);
+
+        InvoicePdfPipeline.RenderedPdf hit = invoicePdfPipeline.fetch(invoice.getId());
+        assert hit.cached() : "Rendered PDF was not served from the cache";
+        invoicePdfPipeline.prune();
+        assert Files.exists(hit.file()) : "Recently served PDF was pruned";
+        assert Files.getLastModifiedTime(hit.file()).equals(written) : "Serving a PDF changed its Last-Modified";
+
+        Files.delete(hit.file());
+        InvoicePdfPipeline.RenderedPdf refetched = invoicePdfPipeline.refetch(hit);
+        assert !refetched.cached() && Files.exists(refetched.file()) : "Pruned PDF was not rendered again";
+    }
+
+    @Test
+    void testGenerateInvoicePdf_shouldHonourConditionalAndRangeRequests() throws Exception {
+        Booking booking = bookingRepository.findAll().getFirst();
+        Invoice invoice = invoiceRepository.save(new Invoice(
+                null,
+                BigDecimal.valueOf(1500),
+                BigDecimal.valueOf(0),
+                "UNPAID",
+                LocalDateTime.now(),
+                LocalDateTime.now().plusDays(7),
+                "CASH",
+                "Range PDF",
+                booking
+        ));
+        String url = "/api/invoices/" + invoice.getId() + "/pdf";
+
+        MockHttpServletResponse full = mockMvc.perform(get(url)
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse();
+        byte[] body = full.getContentAsByteArray();
+        String etag = full.getHeader("ETag");
+
+        mockMvc.perform(get(url)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get(url)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .header("Range", "bytes=0-9")
+                        .header("If-Range", etag))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 0-9/" + body.length))
+                .andExpect(content().bytes(Arrays.copyOf(body, 10)));
+
+        mockMvc.perform(get(url)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .header("Range", "bytes=" + body.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */" + body.length));
+    }
+
+    @Test
+    void testExportInvoicePdfs_shouldStreamZipOfMatchingInvoices() throws Exception {
+        Booking first = bookingRepository.findAll().getFirst();
+        Booking second = new Booking();
+        second.setGuestFullName("Jane Roe");
+        second.setGuestIdNumber("987654321");
+        second.setRoom(first.getRoom());
+        second.setCheckInDate(LocalDateTime.now().plusDays(10));
+        second.setCheckOutDate(LocalDateTime.now().plusDays(12));
+        second.setBookingType("DAILY");
+        second.setStatus("CONFIRMED");
+        second.setNumberOfGuests(1);
+        bookingRepository.save(second);
+
+        List<Long> ids = new ArrayList<>();
+        for (Booking booking : List.of(first, second)) {
+            ids.add(invoiceRepository.save(new Invoice(
+                    null,
+                    BigDecimal.valueOf(1000),
+                    BigDecimal.ZERO,
+                    "PAID",
+                    LocalDateTime.now(),
+                    LocalDateTime.now().plusDays(7),
+                    "CASH",
+                    "Export",
+                    booking
+            )).getId());
+        }
+
+        mockMvc.perform(post("/api/invoices/export/pdf")
+                        .header("Authorization", "Bearer " + receptionistToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isForbidden());
+
+        byte[] zip = mockMvc.perform(post("/api/invoices/export/pdf")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"PAID\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/zip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                byte[] pdf = in.readAllBytes();
+                assert new String(pdf, 0, 4, StandardCharsets.US_ASCII).equals("%PDF") : entry.getName() + " is not a PDF";
+                entries.add(entry.getName());
+            }
+        }
+        assert entries.equals(ids.stream().map(id -> "invoice_" + id + ".pdf").toList()) : "Unexpected entries " + entries;
+    }
 }
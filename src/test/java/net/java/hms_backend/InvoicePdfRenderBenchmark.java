@@ -0,0 +1,170 @@
+package net.java.hms_backend;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import net.java.hms_backend.entity.PriceType;
+import net.java.hms_backend.service.InvoicePdfContent;
+import net.java.hms_backend.service.InvoicePdfRenderer;
+import net.java.hms_backend.service.PricingEngine;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Renders per second of the invoice PDF template, run by hand with
+ * {@code java -cp target/classes:target/test-classes:<dependencies> net.java.hms_backend.InvoicePdfRenderBenchmark}.
+ * "revision-1" is a copy of the renderer before the template, which looks up
+ * Helvetica through FontFactory and lays out the hotel header on every render.
+ * "template-helvetica" is the current renderer with no font files, so it uses
+ * the same Helvetica fonts and only the reuse of fonts and header differs.
+ * "template-dejavu" is the current renderer with the default DejaVu fonts,
+ * which are embedded into every document and so cost more per render.
+ * This is a single-threaded wall-clock loop after a warmup in one JVM, not a
+ * JMH run, so compare the numbers with each other rather than across machines.
+ */
+class InvoicePdfRenderBenchmark {
+
+    private static final String DEJAVU = "/usr/share/fonts/truetype/dejavu/";
+    private static final int WARMUP_SECONDS = 5;
+    private static final int MEASURE_SECONDS = 10;
+
+    public static void main(String[] args) throws Exception {
+        String fontPath = args.length > 0 ? args[0] : DEJAVU + "DejaVuSans.ttf";
+        String boldFontPath = args.length > 1 ? args[1] : DEJAVU + "DejaVuSans-Bold.ttf";
+        InvoicePdfContent content = content();
+
+        report("revision-1", measure(RevisionOneRenderer::render, content));
+        InvoicePdfRenderer helvetica = new InvoicePdfRenderer("", "");
+        report("template-helvetica", measure(helvetica::render, content));
+        InvoicePdfRenderer dejaVu = new InvoicePdfRenderer(fontPath, boldFontPath);
+        report("template-dejavu", measure(dejaVu::render, content));
+    }
+
+    private static double measure(Renderer renderer, InvoicePdfContent content) throws Exception {
+        run(renderer, content, WARMUP_SECONDS);
+        return run(renderer, content, MEASURE_SECONDS);
+    }
+
+    private static double run(Renderer renderer, InvoicePdfContent content, int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long started = System.nanoTime();
+        long renders = 0;
+        while (System.nanoTime() < deadline) {
+            renderer.render(content, OutputStream.nullOutputStream());
+            renders++;
+        }
+        return renders / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private static void report(String name, double rendersPerSecond) {
+        System.out.printf("%-18s %10.1f renders/s%n", name, rendersPerSecond);
+    }
+
+    private static InvoicePdfContent content() {
+        LocalDateTime issued = LocalDateTime.of(2025, 6, 1, 14, 0);
+        return new InvoicePdfContent(
+                1L, 0L, new BigDecimal("1838"), new BigDecimal("500"), "PARTIALLY_PAID",
+                issued, issued.plusDays(7), "Tiền mặt", "Khách yêu cầu xuất hóa đơn đỏ",
+                1L, "Nguyễn Văn Anh", 101,
+                new InvoicePdfContent.Hotel("Khách sạn Hoàng Gia", "12 Lê Lợi, Quận 1, TP. Hồ Chí Minh",
+                        "028 3822 1234", "info@hoanggia.vn", "0312345678"),
+                new PricingEngine.Quote(PriceType.DAILY, 3, 61_250, 0, 183_800));
+    }
+
+    private interface Renderer {
+        void render(InvoicePdfContent content, OutputStream out) throws DocumentException;
+    }
+
+    /**
+     * InvoicePdfRenderer#render as of template revision 1, kept unchanged as
+     * the baseline.
+     */
+    private static final class RevisionOneRenderer {
+
+        static void render(InvoicePdfContent content, OutputStream out) throws DocumentException {
+            InvoicePdfContent.Hotel hotel = content.hotel();
+
+            Document document = new Document(PageSize.A4, 36, 36, 54, 36);
+            PdfWriter.getInstance(document, out);
+
+            document.open();
+
+            Font hotelFont = FontFactory.getFont(FontFactory.HELVETICA, 14, Font.BOLD);
+            document.add(new Paragraph(hotel.name(), hotelFont));
+            document.add(new Paragraph(hotel.address()));
+            document.add(new Paragraph("Phone: " + hotel.phone() + " | Email: " + hotel.email()));
+            document.add(new Paragraph("MST: " + hotel.taxCode()));
+            document.add(new Paragraph(" "));
+
+            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA, 20, Font.BOLD);
+            Paragraph title = new Paragraph("HOA DON THANH TOAN (INVOICE)", titleFont);
+            title.setAlignment(Element.ALIGN_CENTER);
+            document.add(title);
+            document.add(new Paragraph(" "));
+
+            document.add(new Paragraph("Số hóa đơn: " + content.invoiceId()));
+            document.add(new Paragraph("Mã Booking: " + content.bookingId()));
+            document.add(new Paragraph("Khách hàng: " + content.guestFullName()));
+            document.add(new Paragraph("Số phòng: " + content.roomNumber()));
+            document.add(new Paragraph("Ngày lập: " + content.issuedDate()));
+            document.add(new Paragraph("Hạn thanh toán: " + content.dueDate()));
+            document.add(new Paragraph("Trạng thái: " + content.status()));
+            document.add(new Paragraph(" "));
+
+            PdfPTable serviceTable = new PdfPTable(4);
+            serviceTable.setWidthPercentage(100);
+            serviceTable.setWidths(new int[]{4, 1, 2, 2});
+
+            serviceTable.addCell(new PdfPCell(new Phrase("Dịch vụ")));
+            serviceTable.addCell(new PdfPCell(new Phrase("SL")));
+            serviceTable.addCell(new PdfPCell(new Phrase("Đơn giá")));
+            serviceTable.addCell(new PdfPCell(new Phrase("Thành tiền")));
+
+            PricingEngine.Quote quote = content.quote();
+            String unit = quote.priceType() == PriceType.HOURLY ? "giờ" : "đêm";
+            serviceTable.addCell("Tiền phòng (" + quote.units() + " " + unit + ")");
+            serviceTable.addCell(String.valueOf(quote.units()));
+            serviceTable.addCell(PricingEngine.toAmount(quote.unitPrice()).toPlainString());
+            serviceTable.addCell(quote.amount().toPlainString());
+
+            document.add(serviceTable);
+            document.add(new Paragraph(" "));
+
+            BigDecimal subTotal = content.amount();
+            BigDecimal paidAmount = content.paidAmount();
+
+            PdfPTable summaryTable = new PdfPTable(2);
+            summaryTable.setWidthPercentage(50);
+            summaryTable.setHorizontalAlignment(Element.ALIGN_RIGHT);
+
+            summaryTable.addCell("Tổng tiền");
+            summaryTable.addCell(subTotal.toPlainString());
+
+            summaryTable.addCell("Đã thanh toán");
+            summaryTable.addCell(paidAmount.toPlainString());
+
+            summaryTable.addCell("Còn lại");
+            summaryTable.addCell(subTotal.subtract(paidAmount).toPlainString());
+
+            document.add(summaryTable);
+            document.add(new Paragraph(" "));
+
+            document.add(new Paragraph("Phương thức thanh toán: " + (content.paymentMethod() != null ? content.paymentMethod() : "Chưa xác định")));
+            document.add(new Paragraph("Ghi chú: " + (content.notes() != null ? content.notes() : "")));
+            document.add(new Paragraph(" "));
+            document.add(new Paragraph("Xin cam on Quy khach da su dung dich vu cua chung toi!", hotelFont));
+
+            document.close();
+        }
+    }
+}
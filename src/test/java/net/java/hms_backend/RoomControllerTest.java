@@ -3,7 +3,9 @@ package net.java.hms_backend;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import net.java.hms_backend.config.JwtUtil;
 import net.java.hms_backend.dto.RoomDto;
+import net.java.hms_backend.entity.Booking;
 import net.java.hms_backend.entity.Role;
+import net.java.hms_backend.entity.Room;
 import net.java.hms_backend.entity.User;
 import net.java.hms_backend.repository.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +19,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
@@ -46,6 +49,9 @@ class RoomControllerTest {
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
     private String jwtToken;
     private String accountantToken;
     private RoomDto testRoom;
@@ -62,6 +68,7 @@ class RoomControllerTest {
     @BeforeEach
     void setup() {
         notificationRepository.deleteAll();
+        invoiceRepository.deleteAll();
         bookingRepository.deleteAll();
         roomRepository.deleteAll();
         userRepository.deleteAll();
@@ -344,5 +351,78 @@ class RoomControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
-}
+    @Test
+    void testGetAvailabilityGrid_shouldMarkBookedDays() throws Exception {
+        Room room = new Room();
+        room.setRoomNumber(201);
+        room.setMaxOccupancy(2);
+        room.setRoomType("Deluxe");
+        room.setStatus("Available");
+        roomRepository.save(room);
+
+        LocalDate today = LocalDate.now();
+        Booking booking = new Booking();
+        booking.setGuestFullName("Nguyễn Văn A");
+        booking.setGuestIdNumber("123456789");
+        booking.setRoom(room);
+        booking.setCheckInDate(today.plusDays(1).atTime(14, 0));
+        booking.setCheckOutDate(today.plusDays(2).atTime(12, 0));
+        booking.setBookingType("DAILY");
+        booking.setStatus("CONFIRMED");
+        booking.setNumberOfGuests(2);
+        bookingRepository.save(booking);
+
+        mockMvc.perform(get("/api/rooms/availability-grid")
+                        .param("from", today.toString())
+                        .param("to", today.plusDays(4).toString())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.days").value(5))
+                .andExpect(jsonPath("$.rooms[0].roomNumber").value(201))
+                .andExpect(jsonPath("$.rooms[0].occupancy").value("01100"))
+                .andExpect(jsonPath("$.rooms[0].availableDays").value(3));
+    }
+
+    @Test
+    void testGetAvailabilityGridWithInvalidRange_shouldReturn400() throws Exception {
+        LocalDate today = LocalDate.now();
+        mockMvc.perform(get("/api/rooms/availability-grid")
+                        .param("from", today.toString())
+                        .param("to", today.minusDays(1).toString())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testUpdateRoomWithIfMatch_shouldRejectStaleVersion() throws Exception {
+        String response = mockMvc.perform(post("/api/rooms")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testRoom)))
+                .andReturn().getResponse().getContentAsString();
 
+        long id = objectMapper.readTree(response).get("id").asLong();
+        String etag = mockMvc.perform(get("/api/rooms/" + id)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        testRoom.setRoomType("Suite");
+        mockMvc.perform(put("/api/rooms/" + id)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testRoom)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+
+        testRoom.setRoomType("Standard");
+        mockMvc.perform(put("/api/rooms/" + id)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testRoom)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+}
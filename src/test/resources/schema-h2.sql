@@ -0,0 +1,3 @@
+CREATE TRIGGER IF NOT EXISTS booking_no_overlap
+    BEFORE INSERT, UPDATE ON booking
+    FOR EACH ROW CALL 'net.java.hms_backend.BookingNoOverlapTrigger';